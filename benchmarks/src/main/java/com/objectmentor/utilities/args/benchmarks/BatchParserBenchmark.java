@@ -0,0 +1,54 @@
+package com.objectmentor.utilities.args.benchmarks;
+
+import com.objectmentor.utilities.args.ArgsException;
+import com.objectmentor.utilities.args.ArgsSchema;
+import com.objectmentor.utilities.args.BatchParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how batch parsing scales with the size of the fork/join pool. Compare the
+ * scores across the parallelism values to read the speed-up over one core.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BatchParserBenchmark {
+    @Param({"1", "2", "4", "8", "16"})
+    private int parallelism;
+
+    @Param({"1000000"})
+    private int rows;
+
+    private ArgsSchema schema;
+    private List<String[]> argvs;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setUp() throws ArgsException {
+        schema = ArgsSchema.compile(Workload.schema(16, true));
+        Random random = new Random(rows);
+        argvs = new ArrayList<String[]>(rows);
+        for (int i = 0; i < rows; i++)
+            argvs.add(Workload.ERROR_HEAVY.argv(16, true, random));
+        pool = new ForkJoinPool(parallelism);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public Object parseAll() {
+        return BatchParser.parseAll(schema, argvs, pool);
+    }
+}
@@ -0,0 +1,25 @@
+package com.objectmentor.utilities.args.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler attached so that every result also
+ * reports the allocation rate. Accepts the usual JMH command line options:
+ * <pre>
+ *   mvn install &amp;&amp; mvn -f benchmarks/pom.xml package
+ *   java -jar benchmarks/target/benchmarks.jar ParserBenchmark -p workload=SHORT
+ * </pre>
+ */
+public class BenchmarkRunner {
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        new Runner(new OptionsBuilder()
+            .parent(new CommandLineOptions(args))
+            .addProfiler(GCProfiler.class)
+            .build()).run();
+    }
+}
@@ -0,0 +1,72 @@
+package com.objectmentor.utilities.args.benchmarks;
+
+import com.objectmentor.utilities.args.Args;
+import com.objectmentor.utilities.args.ArgsException;
+import com.objectmentor.utilities.args.ArgsSchema;
+import com.objectmentor.utilities.args.firstdraft.booleanandstring.V2Args;
+import com.objectmentor.utilities.args.firstdraft.booleanonly.V1Args;
+import com.objectmentor.utilities.args.firstdraft.booleanstringandinteger.V3Args;
+import com.objectmentor.utilities.args.seconddraft.V4Args;
+
+import java.text.ParseException;
+
+public enum Implementation {
+    V1(false) {
+        Object parse(Object schema, String[] argv) {
+            return new V1Args((String) schema, argv);
+        }
+    },
+    V2(false) {
+        Object parse(Object schema, String[] argv) throws ParseException {
+            return new V2Args((String) schema, argv);
+        }
+    },
+    V3(true) {
+        Object parse(Object schema, String[] argv) throws ParseException {
+            return new V3Args((String) schema, argv);
+        }
+    },
+    V4(true) {
+        Object parse(Object schema, String[] argv) throws ParseException {
+            return new V4Args((String) schema, argv);
+        }
+    },
+    ARGS(true) {
+        Object parse(Object schema, String[] argv) throws ArgsException {
+            return new Args((String) schema, argv);
+        }
+    },
+    ARGS_PARSE_RESULT(true) {
+        Object parse(Object schema, String[] argv) throws ArgsException {
+            return Args.parse(ArgsSchema.compile((String) schema), argv);
+        }
+    },
+    ARGS_SPECIALIZED(true) {
+        Object prepare(String schema) throws ArgsException {
+            return ArgsSchema.compile(schema).specialize();
+        }
+
+        Object parse(Object schema, String[] argv) {
+            return Args.parse((ArgsSchema) schema, argv);
+        }
+    };
+
+    private final boolean supportsIntegers;
+
+    Implementation(boolean supportsIntegers) {
+        this.supportsIntegers = supportsIntegers;
+    }
+
+    boolean supportsIntegers() {
+        return supportsIntegers;
+    }
+
+    /**
+     * Turns the schema text into what {@link #parse} is given, once per trial.
+     */
+    Object prepare(String schema) throws Exception {
+        return schema;
+    }
+
+    abstract Object parse(Object schema, String[] argv) throws Exception;
+}
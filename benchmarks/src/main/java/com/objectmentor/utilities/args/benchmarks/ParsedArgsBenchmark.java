@@ -0,0 +1,35 @@
+package com.objectmentor.utilities.args.benchmarks;
+
+import com.objectmentor.utilities.args.Args;
+import com.objectmentor.utilities.args.ArgsException;
+import com.objectmentor.utilities.args.ParsedArgs;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads one {@link ParsedArgs} snapshot from many threads at once. Scale the
+ * reader count with {@code -t}; throughput should grow with the threads since
+ * the snapshot is never written after it is built.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParsedArgsBenchmark {
+    private ParsedArgs parsed;
+
+    @Setup
+    public void setUp() throws ArgsException {
+        parsed = new Args("l,p#,d*", new String[]{"-l", "-p", "8080", "-d", "/data"}).snapshot();
+    }
+
+    @Benchmark
+    public int read() {
+        if (parsed.getBoolean('l') && parsed.has('d'))
+            return parsed.getInt('p') + parsed.getString('d').length();
+        return 0;
+    }
+}
@@ -0,0 +1,55 @@
+package com.objectmentor.utilities.args.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares every generation of the parser on the same argument vectors. Integer
+ * options are only added to the schema for implementations that understand them,
+ * so V1 and V2 see the boolean-only form of each workload.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ParserBenchmark {
+    private static final int VECTORS = 1024;
+
+    @Param({"V1", "V2", "V3", "V4", "ARGS", "ARGS_PARSE_RESULT", "ARGS_SPECIALIZED"})
+    private Implementation implementation;
+
+    @Param({"SHORT", "LONG", "CLUSTERED", "ERROR_HEAVY"})
+    private Workload workload;
+
+    @Param({"4", "16", "52"})
+    private int schemaSize;
+
+    private Object schema;
+    private String[][] argvs;
+    private int next;
+
+    @Setup
+    public void setUp() throws Exception {
+        boolean integers = implementation.supportsIntegers() && workload != Workload.CLUSTERED;
+        Random random = new Random(schemaSize);
+        schema = implementation.prepare(Workload.schema(schemaSize, integers));
+        argvs = new String[VECTORS][];
+        for (int i = 0; i < VECTORS; i++)
+            argvs[i] = workload.argv(schemaSize, integers, random);
+    }
+
+    @Benchmark
+    public void parse(Blackhole blackhole) {
+        String[] argv = argvs[next++ & (VECTORS - 1)];
+        try {
+            blackhole.consume(implementation.parse(schema, argv));
+        } catch (Exception e) {
+            blackhole.consume(e);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.objectmentor.utilities.args.benchmarks;
+
+import com.objectmentor.utilities.args.Args;
+import com.objectmentor.utilities.args.ArgsException;
+import com.objectmentor.utilities.args.ArgsParser;
+import com.objectmentor.utilities.args.ArgsSchema;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a reused {@link ArgsParser} with one-shot {@link Args#parse}. Run with the
+ * GC profiler; the reused parser should report close to 0 B/op on both inputs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ReusableParserBenchmark {
+    @Param({"FLAGS", "INTEGERS"})
+    private String input;
+
+    private ArgsSchema schema;
+    private ArgsParser parser;
+    private String[] argv;
+
+    @Setup
+    public void setUp() throws ArgsException {
+        schema = ArgsSchema.compile("a,b,c,d,e,p#,q#,r#");
+        parser = new ArgsParser(schema);
+        argv = input.equals("FLAGS")
+            ? new String[]{"-ab", "-c", "-de"}
+            : new String[]{"-p", "8080", "-q", "-42", "-r", "65536"};
+    }
+
+    @Benchmark
+    public boolean reused() {
+        return parser.parse(argv).isOk();
+    }
+
+    @Benchmark
+    public boolean oneShot() {
+        return Args.parse(schema, argv).isOk();
+    }
+}
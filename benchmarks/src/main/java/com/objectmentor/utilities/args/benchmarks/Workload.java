@@ -0,0 +1,67 @@
+package com.objectmentor.utilities.args.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public enum Workload {
+    SHORT {
+        String[] argv(int schemaSize, boolean integers, Random random) {
+            return separateFlags(Math.min(3, schemaSize), schemaSize, integers, random);
+        }
+    },
+    LONG {
+        String[] argv(int schemaSize, boolean integers, Random random) {
+            return separateFlags(schemaSize, schemaSize, integers, random);
+        }
+    },
+    CLUSTERED {
+        String[] argv(int schemaSize, boolean integers, Random random) {
+            StringBuilder cluster = new StringBuilder("-");
+            for (int i = 0; i < schemaSize; i++)
+                cluster.append(ID_CHARS.charAt(i));
+            return new String[]{cluster.toString()};
+        }
+    },
+    ERROR_HEAVY {
+        String[] argv(int schemaSize, boolean integers, Random random) {
+            String[] argv = separateFlags(Math.min(3, schemaSize), schemaSize, integers, random);
+            if (random.nextInt(5) == 0)
+                argv[random.nextInt(argv.length)] = UNKNOWN_FLAG;
+            return argv;
+        }
+    };
+
+    static final String ID_CHARS = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ";
+    // Fails whether it lands on a flag or on an integer value.
+    private static final String UNKNOWN_FLAG = "-?";
+
+    abstract String[] argv(int schemaSize, boolean integers, Random random);
+
+    static String schema(int schemaSize, boolean integers) {
+        StringBuilder schema = new StringBuilder();
+        for (int i = 0; i < schemaSize; i++) {
+            if (i > 0)
+                schema.append(',');
+            schema.append(ID_CHARS.charAt(i));
+            if (integers && isIntegerElement(i))
+                schema.append('#');
+        }
+        return schema.toString();
+    }
+
+    private static boolean isIntegerElement(int index) {
+        return index % 4 == 3;
+    }
+
+    private static String[] separateFlags(int count, int schemaSize, boolean integers, Random random) {
+        List<String> argv = new ArrayList<String>();
+        for (int i = 0; i < count; i++) {
+            int element = count == schemaSize ? i : random.nextInt(schemaSize);
+            argv.add("-" + ID_CHARS.charAt(element));
+            if (integers && isIntegerElement(element))
+                argv.add(Integer.toString(random.nextInt(65536)));
+        }
+        return argv.toArray(new String[0]);
+    }
+}
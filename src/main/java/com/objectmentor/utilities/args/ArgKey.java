@@ -0,0 +1,50 @@
+package com.objectmentor.utilities.args;
+
+/**
+ * A typed handle to one element of a compiled schema. The element's slot is resolved
+ * when the key is created, so reading through a key is an array load with no lookup
+ * or type check. Keys are created by {@link ArgsSchema#intKey(char)} and friends.
+ *
+ * <p>A key reads from any schema compiled from the same text, since compiling a
+ * text always lays out the same slots. It stays usable after its schema is evicted
+ * from the cache and the text is compiled again.
+ */
+public final class ArgKey<T> {
+    private final ArgsSchema schema;
+    private final char id;
+    private final String name;
+    final int ordinal;
+    final int slot;
+
+    ArgKey(ArgsSchema schema, char id, String name, int ordinal, int slot) {
+        this.schema = schema;
+        this.id = id;
+        this.name = name;
+        this.ordinal = ordinal;
+        this.slot = slot;
+    }
+
+    public char getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    int slotIn(ArgsSchema schema) {
+        if (schema != this.schema && !schema.getText().equals(this.schema.getText()))
+            throw new IllegalArgumentException(
+                String.format("Key %s belongs to schema '%s', not '%s'.", this, this.schema.getText(), schema.getText()));
+        return slot;
+    }
+
+    int ordinalIn(ArgsSchema schema) {
+        slotIn(schema);
+        return ordinal;
+    }
+
+    public String toString() {
+        return id == ArgsSchema.NO_ID ? "--" + name : "-" + id;
+    }
+}
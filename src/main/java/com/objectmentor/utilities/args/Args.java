@@ -1,108 +1,455 @@
 package com.objectmentor.utilities.args;
 
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
 import java.util.*;
 
 import static com.objectmentor.utilities.args.ArgsException.ErrorCode.*;
 
 public class Args {
-    private HashMap<Character, ArgumentMarshaller> marshalers;
-    private HashSet<Character> argsFound;
-    private ListIterator<String> currentArgument;
+    private ArgsSchema schema;
+    private ArgumentValues values;
+    private CursorMarshaler[] marshalers;
+    private CompiledParser compiledParser;
+    private boolean expandArgumentFiles;
+    private final long[] argsFound;
+    private int nextArgument;
+    private int nextArgumentOffset = ArgsException.NO_OFFSET;
 
     public Args(String schema, String[] args) throws ArgsException {
-        marshalers = new HashMap<Character, ArgumentMarshaller>();
-        argsFound = new HashSet<Character>();
-
-        parseSchema(schema);
-        parseArgumentStrings(Arrays.asList(args));
-    }
-
-    private void parseSchema(String schema) throws ArgsException {
-        for (String element : schema.split(","))
-            if (element.length() > 0)
-                parseSchemaElement(element.trim());
-    }
-
-    private void parseSchemaElement(String element) throws ArgsException {
-        char elementId = element.charAt(0);
-        String elementTail = element.substring(1);
-        validateSchemaElementId(elementId);
-        if (elementTail.length() == 0)
-            marshalers.put(elementId, new BooleanArgumentMarshaler());
-        else if (elementTail.equals("*"))
-            marshalers.put(elementId, new StringArgumentMarshaler());
-        else if (elementTail.equals("#"))
-            marshalers.put(elementId, new IntegerArgumentMarshaler());
-        else if (elementTail.equals("##"))
-            marshalers.put(elementId, new DoubleArgumentMarshaler());
-        else if (elementTail.equals("[*]"))
-            marshalers.put(elementId, new StringArrayArgumentMarshaler());
-        else
-            throw new ArgsException(INVALID_ARGUMENT_FORMAT, elementId, elementTail);
-    }
-
-    private void validateSchemaElementId(char elementId) throws ArgsException {
-        if (!Character.isLetter(elementId))
-            throw new ArgsException(INVALID_ARGUMENT_NAME, elementId, null);
-    }
-
-    private void parseArgumentStrings(List<String> argsList) throws ArgsException {
-        for (currentArgument = argsList.listIterator(); currentArgument.hasNext();) {
-            String argString = currentArgument.next();
-            if (argString.startsWith("-"))
-                parseArgumentCharacters(argString.substring(1));
-            else {
-                currentArgument.previous();
-                break;
+        this(ArgsSchema.compile(schema), args);
+    }
+
+    public Args(ArgsSchema schema, String[] args) throws ArgsException {
+        this(schema);
+        ParseResult result = new ParseResult(this);
+        if (!parse(args, result))
+            throw result.toException();
+    }
+
+    public Args(ArgsSchema schema, CharSequence commandLine) throws ArgsException {
+        this(schema);
+        ParseResult result = new ParseResult(this);
+        if (!parse(new CharSequenceArgumentTokenizer(commandLine, 0, commandLine.length()), result))
+            throw result.toException();
+    }
+
+    Args(ArgsSchema schema) {
+        this.schema = schema;
+        this.values = new ArgumentValues(schema);
+        this.argsFound = new long[schema.foundWords()];
+    }
+
+    public static ParseResult parse(ArgsSchema schema, String[] args) {
+        Args parsed = new Args(schema);
+        ParseResult result = new ParseResult(parsed);
+        parsed.parse(args, result);
+        return result;
+    }
+
+    /**
+     * Parses like {@link #parse(ArgsSchema, String[])}, but the elements named in
+     * {@code marshalers} are read by those marshalers instead of the built-in ones.
+     * Their values stay in the marshalers; the getters of the result return the
+     * defaults for them. An {@link ArgsException} thrown by a marshaler becomes the
+     * error of the result.
+     */
+    public static ParseResult parse(ArgsSchema schema, String[] args,
+                                    Map<Character, ? extends ArgumentMarshaller> marshalers) {
+        CursorMarshaler[] adapters = new CursorMarshaler[schema.size()];
+        for (Map.Entry<Character, ? extends ArgumentMarshaller> marshaler : marshalers.entrySet()) {
+            int ordinal = schema.ordinalOf(marshaler.getKey());
+            if (ordinal == ArgsSchema.NO_ELEMENT)
+                throw new IllegalArgumentException(
+                    "No element -" + marshaler.getKey() + " in schema \"" + schema.getText() + "\"");
+            adapters[ordinal] = new IteratorMarshalerAdapter(marshaler.getValue());
+        }
+        Args parsed = new Args(schema);
+        ParseResult result = new ParseResult(parsed);
+        parsed.parse(args, adapters, result);
+        return result;
+    }
+
+    /**
+     * Parses like {@link #parse(ArgsSchema, String[])}, but an argument {@code @path}
+     * among the options is replaced by the options read from that file.
+     */
+    public static ParseResult parseExpandingFiles(ArgsSchema schema, String[] args) {
+        Args parsed = new Args(schema);
+        parsed.expandArgumentFiles = true;
+        ParseResult result = new ParseResult(parsed);
+        parsed.parse(args, result);
+        return result;
+    }
+
+    public static ParseResult parse(ArgsSchema schema, CharSequence commandLine) {
+        return parse(schema, new CharSequenceArgumentTokenizer(commandLine, 0, commandLine.length()));
+    }
+
+    public static ParseResult parse(ArgsSchema schema, char[] commandLine, int offset, int length) {
+        return parse(schema, new CharSequenceArgumentTokenizer(CharBuffer.wrap(commandLine), offset, offset + length));
+    }
+
+    private static ParseResult parse(ArgsSchema schema, ArgumentTokenizer commandLine) {
+        Args parsed = new Args(schema);
+        ParseResult result = new ParseResult(parsed);
+        parsed.parse(commandLine, result);
+        return result;
+    }
+
+    static Args reusable(ArgsSchema schema) {
+        Args args = new Args(schema);
+        args.compiledParser = schema.compiledParser();
+        return args;
+    }
+
+    void reset() {
+        values.clear();
+        Arrays.fill(argsFound, 0);
+        nextArgument = 0;
+        nextArgumentOffset = ArgsException.NO_OFFSET;
+    }
+
+    boolean parseAgain(ArgumentCursor cursor, ParseResult result) {
+        reset();
+        return parseArgumentStrings(cursor, result);
+    }
+
+    private boolean parse(String[] args, ParseResult result) {
+        compiledParser = schema.compiledParser();
+        return parseArgumentStrings(new ArgumentCursor(args), result);
+    }
+
+    /**
+     * Parses with the given marshalers in place of the built-in ones; a null entry
+     * keeps the built-in marshaling for that element.
+     */
+    boolean parse(String[] args, CursorMarshaler[] marshalers, ParseResult result) {
+        this.marshalers = marshalers;
+        try {
+            return parseArgumentStrings(new ArgumentCursor(args), result);
+        } finally {
+            this.marshalers = null;
+        }
+    }
+
+    private boolean parse(ArgumentTokenizer commandLine, ParseResult result) {
+        compiledParser = schema.compiledParser();
+        return parseCommandLine(commandLine, result);
+    }
+
+    private boolean parseArgumentStrings(ArgumentCursor cursor, ParseResult result) {
+        ArgsMetrics metrics = ArgsMetrics.current();
+        long start = metrics == null ? 0 : System.nanoTime();
+        Object event = ArgsEvents.beginParse();
+        boolean ok = walkArgumentStrings(cursor, result);
+        recordParse(metrics, start, event, result);
+        return ok;
+    }
+
+    private void recordParse(ArgsMetrics metrics, long start, Object event, ParseResult result) {
+        if (metrics != null)
+            metrics.recordParse(schema, System.nanoTime() - start, result.getErrorCode());
+        if (event != null)
+            ArgsEvents.endParse(event, schema.getText(), nextArgument, foundCount(), result.getErrorCode());
+    }
+
+    private boolean walkArgumentStrings(ArgumentCursor cursor, ParseResult result) {
+        try {
+            String argString;
+            while ((argString = cursor.peek()) != null && (argString.startsWith("-") || isArgumentFile(argString))) {
+                cursor.advance();
+                if (isEndOfOptions(argString))
+                    break;
+                if (isArgumentFile(argString)) {
+                    if (!parseArgumentFile(argString.substring(1), result))
+                        return false;
+                } else if (!parseFlag(argString, cursor, result))
+                    return false;
             }
+            return checkRequired(result);
+        } finally {
+            nextArgument = cursor.index();
         }
     }
 
-    private void parseArgumentCharacters(String argChars) throws ArgsException {
-        for (int i = 0; i < argChars.length(); i++)
-            parseArgumentCharacter(argChars.charAt(i));
+    private boolean parseCommandLine(ArgumentTokenizer commandLine, ParseResult result) {
+        ArgsMetrics metrics = ArgsMetrics.current();
+        long start = metrics == null ? 0 : System.nanoTime();
+        Object event = ArgsEvents.beginParse();
+        boolean ok = walkCommandLine(commandLine, result);
+        recordParse(metrics, start, event, result);
+        return ok;
     }
 
-    private void parseArgumentCharacter(char argChar) throws ArgsException {
-        ArgumentMarshaller m = marshalers.get(argChar);
-        if (m == null)
-            throw new ArgsException(UNEXPECTED_ARGUMENT, argChar, null);
-        else {
-            argsFound.add(argChar);
-            try {
-                m.set(currentArgument);
-            } catch (ArgsException e) {
-                e.setErrorArgumentId(argChar);
-                throw e;
+    private boolean walkCommandLine(ArgumentTokenizer commandLine, ParseResult result) {
+        ArgumentCursor cursor = new ArgumentCursor(commandLine);
+        try {
+            boolean ok = true;
+            while (ok && commandLine.nextIsFlag()) {
+                CharSequence flag = commandLine.takeFlag();
+                if (isEndOfOptions(flag))
+                    break;
+                ok = parseFlag(flag, cursor, result);
+            }
+            if (commandLine.errorOffset() != ArgsException.NO_OFFSET) {
+                result.reset();
+                return result.fail(UNTERMINATED_QUOTE, null, commandLine.errorOffset());
             }
+            return ok && checkRequired(result);
+        } finally {
+            nextArgument = commandLine.tokensTaken();
+            nextArgumentOffset = commandLine.hasNext() ? commandLine.tokenOffset() : commandLine.offset();
+        }
+    }
+
+    private boolean checkRequired(ParseResult result) {
+        int missing = schema.missingRequired(argsFound);
+        if (missing == ArgsSchema.NO_ELEMENT)
+            return true;
+        if (schema.idAt(missing) == ArgsSchema.NO_ID)
+            result.setErrorArgumentName(schema.nameAt(missing));
+        return result.fail(MISSING_REQUIRED_ARGUMENT, schema.idAt(missing), null);
+    }
+
+    private static boolean isEndOfOptions(CharSequence flag) {
+        return flag.length() == 2 && flag.charAt(1) == '-';
+    }
+
+    private boolean isArgumentFile(String argString) {
+        return expandArgumentFiles && argString.length() > 1 && argString.charAt(0) == '@';
+    }
+
+    private boolean parseArgumentFile(String fileName, ParseResult result) {
+        MappedArgumentTokenizer tokenizer;
+        try {
+            tokenizer = MappedArgumentTokenizer.map(Paths.get(fileName));
+        } catch (IOException | InvalidPathException e) {
+            return result.fail(INVALID_ARGUMENT_FILE, fileName);
+        }
+        ArgumentCursor cursor = new ArgumentCursor(tokenizer);
+        boolean ok = true;
+        while (ok && tokenizer.hasNext()) {
+            if (!tokenizer.nextIsFlag())
+                return result.fail(INVALID_ARGUMENT_FILE, fileName, tokenizer.tokenOffset());
+            ok = parseFlag(tokenizer.takeFlag(), cursor, result);
+        }
+        if (tokenizer.errorOffset() != ArgsException.NO_OFFSET) {
+            result.reset();
+            return result.fail(INVALID_ARGUMENT_FILE, fileName, tokenizer.errorOffset());
+        }
+        return ok;
+    }
+
+    private boolean parseFlag(CharSequence flag, ArgumentCursor cursor, ParseResult result) {
+        if (flag.length() > 2 && flag.charAt(1) == '-')
+            return parseLongOption(flag, cursor, result);
+        return parseArgumentCharacters(flag, cursor, result);
+    }
+
+    private boolean parseLongOption(CharSequence option, ArgumentCursor cursor, ParseResult result) {
+        int nameEnd = 2;
+        while (nameEnd < option.length() && option.charAt(nameEnd) != '=')
+            nameEnd++;
+        int ordinal = schema.ordinalOf(option, 2, nameEnd);
+        if (ordinal == ArgsSchema.NO_ELEMENT) {
+            result.setErrorArgumentName(option.subSequence(2, nameEnd).toString());
+            return result.fail(UNEXPECTED_ARGUMENT, ArgsSchema.NO_ID, null);
+        }
+        boolean ok;
+        if (nameEnd == option.length())
+            ok = setArgument(ordinal, cursor, result);
+        else if (schema.typeAt(ordinal) == ArgumentType.BOOLEAN)
+            ok = result.fail(INVALID_ARGUMENT_FORMAT, option.toString());
+        else {
+            String value = option.subSequence(nameEnd + 1, option.length()).toString();
+            ok = setArgument(ordinal, new ArgumentCursor(new String[]{value}), result);
+        }
+        if (!ok) {
+            result.setErrorArgumentId(schema.idAt(ordinal));
+            result.setErrorArgumentName(schema.nameAt(ordinal));
         }
+        return ok;
+    }
+
+    private boolean setArgument(int ordinal, ArgumentCursor cursor, ParseResult result) {
+        argsFound[ordinal >>> 6] |= 1L << ordinal;
+        if (marshalers != null && marshalers[ordinal] != null)
+            return marshalers[ordinal].set(cursor, result);
+        return schema.typeAt(ordinal).set(cursor, values, schema.slotAt(ordinal), result);
+    }
+
+    private boolean parseArgumentCharacters(CharSequence argChars, ArgumentCursor cursor, ParseResult result) {
+        for (int i = 1; i < argChars.length(); i++)
+            if (!parseArgumentCharacter(argChars.charAt(i), cursor, result))
+                return false;
+        return true;
+    }
+
+    private boolean parseArgumentCharacter(char argChar, ArgumentCursor cursor, ParseResult result) {
+        if (compiledParser != null)
+            return parseCompiledCharacter(argChar, cursor, result);
+        int ordinal = schema.ordinalOf(argChar);
+        if (ordinal == ArgsSchema.NO_ELEMENT)
+            return result.fail(UNEXPECTED_ARGUMENT, argChar, null);
+        if (setArgument(ordinal, cursor, result))
+            return true;
+        result.setErrorArgumentId(argChar);
+        return false;
+    }
+
+    private boolean parseCompiledCharacter(char argChar, ArgumentCursor cursor, ParseResult result) {
+        int ordinal = compiledParser.set(argChar, cursor, values, result);
+        if (ordinal != ArgsSchema.NO_ELEMENT) {
+            argsFound[ordinal >>> 6] |= 1L << ordinal;
+            return true;
+        }
+        result.setErrorArgumentId(argChar);
+        return false;
+    }
+
+    ArgsSchema schema() {
+        return schema;
+    }
+
+    long[] argsFound() {
+        return argsFound;
+    }
+
+    private int foundCount() {
+        int count = 0;
+        for (long word : argsFound)
+            count += Long.bitCount(word);
+        return count;
+    }
+
+    ArgumentValues values() {
+        return values;
     }
 
     public boolean has(char arg) {
-        return argsFound.contains(arg);
+        return found(schema.ordinalOf(arg));
+    }
+
+    public boolean has(String name) {
+        return found(schema.ordinalOf(name));
+    }
+
+    private boolean found(int ordinal) {
+        return ordinal != ArgsSchema.NO_ELEMENT && (argsFound[ordinal >>> 6] & 1L << ordinal) != 0;
     }
 
     public int nextArgument() {
-        return currentArgument.nextIndex();
+        return nextArgument;
+    }
+
+    public int nextArgumentOffset() {
+        return nextArgumentOffset;
+    }
+
+    public ParsedArgs snapshot() {
+        return new ParsedArgs(schema, argsFound, nextArgument(), values);
     }
 
     public boolean getBoolean(char arg) {
-        return BooleanArgumentMarshaler.getValue(marshalers.get(arg));
+        int slot = schema.slotOf(arg, ArgumentType.BOOLEAN);
+        return slot != ArgsSchema.NO_ELEMENT && values.getBoolean(slot);
     }
 
     public String getString(char arg) {
-        return StringArgumentMarshaler.getValue(marshalers.get(arg));
+        int slot = schema.slotOf(arg, ArgumentType.STRING);
+        return slot == ArgsSchema.NO_ELEMENT ? "" : values.getString(slot);
     }
 
     public int getInt(char arg) {
-        return IntegerArgumentMarshaler.getValue(marshalers.get(arg));
+        int slot = schema.slotOf(arg, ArgumentType.INTEGER);
+        return slot == ArgsSchema.NO_ELEMENT ? 0 : values.ints[slot];
+    }
+
+    public long getLong(char arg) {
+        int slot = schema.slotOf(arg, ArgumentType.LONG);
+        return slot == ArgsSchema.NO_ELEMENT ? 0 : values.longs[slot];
     }
 
     public double getDouble(char arg) {
-        return DoubleArgumentMarshaler.getValue(marshalers.get(arg));
+        int slot = schema.slotOf(arg, ArgumentType.DOUBLE);
+        return slot == ArgsSchema.NO_ELEMENT ? 0 : values.doubles[slot];
     }
 
     public String[] getStringArray(char arg) {
-        return StringArrayArgumentMarshaler.getValue(marshalers.get(arg));
+        return getStringList(arg).toArray(new String[0]);
+    }
+
+    public List<String> getStringList(char arg) {
+        int slot = schema.slotOf(arg, ArgumentType.STRING_ARRAY);
+        return slot == ArgsSchema.NO_ELEMENT ? Collections.<String>emptyList() : values.getStringArray(slot);
+    }
+
+    public boolean getBoolean(String name) {
+        int slot = schema.slotOf(name, ArgumentType.BOOLEAN);
+        return slot != ArgsSchema.NO_ELEMENT && values.getBoolean(slot);
+    }
+
+    public String getString(String name) {
+        int slot = schema.slotOf(name, ArgumentType.STRING);
+        return slot == ArgsSchema.NO_ELEMENT ? "" : values.getString(slot);
+    }
+
+    public int getInt(String name) {
+        int slot = schema.slotOf(name, ArgumentType.INTEGER);
+        return slot == ArgsSchema.NO_ELEMENT ? 0 : values.ints[slot];
+    }
+
+    public long getLong(String name) {
+        int slot = schema.slotOf(name, ArgumentType.LONG);
+        return slot == ArgsSchema.NO_ELEMENT ? 0 : values.longs[slot];
+    }
+
+    public double getDouble(String name) {
+        int slot = schema.slotOf(name, ArgumentType.DOUBLE);
+        return slot == ArgsSchema.NO_ELEMENT ? 0 : values.doubles[slot];
+    }
+
+    public String[] getStringArray(String name) {
+        return getStringList(name).toArray(new String[0]);
+    }
+
+    public List<String> getStringList(String name) {
+        int slot = schema.slotOf(name, ArgumentType.STRING_ARRAY);
+        return slot == ArgsSchema.NO_ELEMENT ? Collections.<String>emptyList() : values.getStringArray(slot);
+    }
+
+    public boolean has(ArgKey<?> key) {
+        return found(key.ordinalIn(schema));
+    }
+
+    public boolean getBoolean(ArgKey<Boolean> key) {
+        return values.getBoolean(key.slotIn(schema));
+    }
+
+    public String getString(ArgKey<String> key) {
+        return values.getString(key.slotIn(schema));
+    }
+
+    public int getInt(ArgKey<Integer> key) {
+        return values.ints[key.slotIn(schema)];
+    }
+
+    public long getLong(ArgKey<Long> key) {
+        return values.longs[key.slotIn(schema)];
+    }
+
+    public double getDouble(ArgKey<Double> key) {
+        return values.doubles[key.slotIn(schema)];
+    }
+
+    public String[] getStringArray(ArgKey<String[]> key) {
+        return getStringList(key).toArray(new String[0]);
+    }
+
+    public List<String> getStringList(ArgKey<String[]> key) {
+        return values.getStringArray(key.slotIn(schema));
     }
 }
@@ -0,0 +1,87 @@
+package com.objectmentor.utilities.args;
+
+import jdk.jfr.EventType;
+
+/**
+ * Emits the JFR events for {@link Args} and {@link ArgsSchema}. Callers hold an
+ * event as an {@code Object}, and the event classes are only touched through
+ * {@link Recorder}, which is not loaded unless the {@code jdk.jfr} module is
+ * present; on a runtime without it every event is {@code null} and parsing
+ * works as before.
+ */
+final class ArgsEvents {
+    private static final boolean AVAILABLE = isJfrAvailable();
+
+    private ArgsEvents() {
+    }
+
+    private static boolean isJfrAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event", false, ArgsEvents.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    static Object beginParse() {
+        return AVAILABLE ? Recorder.beginParse() : null;
+    }
+
+    static void endParse(Object event, String schema, int argumentCount, int optionsFound,
+                         ArgsException.ErrorCode errorCode) {
+        if (event != null)
+            Recorder.endParse(event, schema, argumentCount, optionsFound, errorCode);
+    }
+
+    static Object beginCompile() {
+        return AVAILABLE ? Recorder.beginCompile() : null;
+    }
+
+    static void endCompile(Object event, String schema, int elementCount) {
+        if (event != null)
+            Recorder.endCompile(event, schema, elementCount);
+    }
+
+    private static final class Recorder {
+        private static final EventType PARSE = EventType.getEventType(ArgsParseEvent.class);
+        private static final EventType COMPILE = EventType.getEventType(ArgsSchemaCompileEvent.class);
+
+        static Object beginParse() {
+            if (!PARSE.isEnabled())
+                return null;
+            ArgsParseEvent event = new ArgsParseEvent();
+            event.begin();
+            return event;
+        }
+
+        static void endParse(Object recorded, String schema, int argumentCount, int optionsFound,
+                             ArgsException.ErrorCode errorCode) {
+            ArgsParseEvent event = (ArgsParseEvent) recorded;
+            if (!event.shouldCommit())
+                return;
+            event.schema = schema;
+            event.argumentCount = argumentCount;
+            event.optionsFound = optionsFound;
+            event.errorCode = errorCode.name();
+            event.commit();
+        }
+
+        static Object beginCompile() {
+            if (!COMPILE.isEnabled())
+                return null;
+            ArgsSchemaCompileEvent event = new ArgsSchemaCompileEvent();
+            event.begin();
+            return event;
+        }
+
+        static void endCompile(Object recorded, String schema, int elementCount) {
+            ArgsSchemaCompileEvent event = (ArgsSchemaCompileEvent) recorded;
+            if (!event.shouldCommit())
+                return;
+            event.schema = schema;
+            event.elementCount = elementCount;
+            event.commit();
+        }
+    }
+}
@@ -1,9 +1,13 @@
 package com.objectmentor.utilities.args;
 
 public class ArgsException extends Exception {
+    public static final int NO_OFFSET = -1;
+
     private char errorArgumentId = '\0';
+    private String errorArgumentName = null;
     private String errorParameter = null;
     private ErrorCode errorCode = ErrorCode.OK;
+    private int errorOffset = NO_OFFSET;
 
     public ArgsException() {
     }
@@ -27,6 +31,18 @@ public class ArgsException extends Exception {
         this.errorArgumentId = errorArgumentId;
     }
 
+    private ArgsException(ErrorCode errorCode, char errorArgumentId, String errorParameter,
+                          boolean writableStackTrace) {
+        super(null, null, false, writableStackTrace);
+        this.errorCode = errorCode;
+        this.errorParameter = errorParameter;
+        this.errorArgumentId = errorArgumentId;
+    }
+
+    public static ArgsException stackless(ErrorCode errorCode, char errorArgumentId, String errorParameter) {
+        return new ArgsException(errorCode, errorArgumentId, errorParameter, false);
+    }
+
     public char getErrorArgumentId() {
         return errorArgumentId;
     }
@@ -35,6 +51,14 @@ public class ArgsException extends Exception {
         this.errorArgumentId = errorArgumentId;
     }
 
+    public String getErrorArgumentName() {
+        return errorArgumentName;
+    }
+
+    public void setErrorArgumentName(String errorArgumentName) {
+        this.errorArgumentName = errorArgumentName;
+    }
+
     public String getErrorParameter() {
         return errorParameter;
     }
@@ -43,6 +67,14 @@ public class ArgsException extends Exception {
         this.errorParameter = errorParameter;
     }
 
+    public int getErrorOffset() {
+        return errorOffset;
+    }
+
+    public void setErrorOffset(int errorOffset) {
+        this.errorOffset = errorOffset;
+    }
+
     public ErrorCode getErrorCode() {
         return errorCode;
     }
@@ -52,32 +84,59 @@ public class ArgsException extends Exception {
     }
 
     public String errorMessage() {
+        return errorMessage(errorCode, errorArgumentId, errorArgumentName, errorParameter, errorOffset);
+    }
+
+    static String errorMessage(ErrorCode errorCode, char errorArgumentId, String errorArgumentName,
+                               String errorParameter, int errorOffset) {
+        String name = errorArgumentName == null ? String.valueOf(errorArgumentId) : errorArgumentName;
+        String argument = errorArgumentName == null ? "-" + name : "--" + name;
+        String message = errorMessage(errorCode, name, argument, errorParameter);
+        if (errorOffset == NO_OFFSET)
+            return message;
+        return String.format("%s (offset %d)", message, errorOffset);
+    }
+
+    private static String errorMessage(ErrorCode errorCode, String name, String argument, String errorParameter) {
         switch (errorCode) {
             case OK:
                 return "TILT: Should not get here.";
             case UNEXPECTED_ARGUMENT:
-                return String.format("Argument -%c unexpected.", errorArgumentId);
+                return String.format("Argument %s unexpected.", argument);
             case MISSING_STRING:
-                return String.format("Could not find string parameter for -%c.",
-                    errorArgumentId);
+                return String.format("Could not find string parameter for %s.",
+                    argument);
             case INVALID_INTEGER:
-                return String.format("Argument -%c expects an integer but was '%s'.",
-                    errorArgumentId, errorParameter);
+                return String.format("Argument %s expects an integer but was '%s'.",
+                    argument, errorParameter);
             case MISSING_INTEGER:
-                return String.format("Could not find integer parameter for -%c.",
-                    errorArgumentId);
+                return String.format("Could not find integer parameter for %s.",
+                    argument);
+            case INVALID_LONG:
+                return String.format("Argument %s expects a long but was '%s'.",
+                    argument, errorParameter);
+            case MISSING_LONG:
+                return String.format("Could not find long parameter for %s.",
+                    argument);
             case INVALID_DOUBLE:
-                return String.format("Argument -%c expects a double but was '%s'.",
-                    errorArgumentId, errorParameter);
+                return String.format("Argument %s expects a double but was '%s'.",
+                    argument, errorParameter);
             case MISSING_DOUBLE:
-                return String.format("Could not find double parameter for -%c.",
-                    errorArgumentId);
+                return String.format("Could not find double parameter for %s.",
+                    argument);
             case INVALID_ARGUMENT_NAME:
-                return String.format("'%c' is not a valid argument name.",
-                    errorArgumentId);
+                return String.format("'%s' is not a valid argument name.",
+                    name);
+            case INVALID_ARGUMENT_FILE:
+                return String.format("Could not read argument file '%s'.",
+                    errorParameter);
+            case UNTERMINATED_QUOTE:
+                return "Command line has an unterminated quote.";
             case INVALID_ARGUMENT_FORMAT:
                 return String.format("'%s' is not a valid argument format.",
                     errorParameter);
+            case MISSING_REQUIRED_ARGUMENT:
+                return String.format("Argument %s is required.", argument);
         }
         return "";
     }
@@ -86,7 +145,10 @@ public class ArgsException extends Exception {
         OK, INVALID_ARGUMENT_FORMAT, UNEXPECTED_ARGUMENT, INVALID_ARGUMENT_NAME,
         MISSING_STRING,
         MISSING_INTEGER, INVALID_INTEGER,
-        MISSING_DOUBLE, INVALID_DOUBLE
+        MISSING_LONG, INVALID_LONG,
+        MISSING_DOUBLE, INVALID_DOUBLE,
+        INVALID_ARGUMENT_FILE, UNTERMINATED_QUOTE,
+        MISSING_REQUIRED_ARGUMENT
     }
 
 }
@@ -0,0 +1,179 @@
+package com.objectmentor.utilities.args;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Opt-in counters for every parse: parses per schema, failures per
+ * {@link ArgsException.ErrorCode} and a latency histogram. Nothing is recorded
+ * until {@link #enable()} is called; while disabled a parse pays one field read
+ * and does not read the clock.
+ *
+ * <p>The histogram has one bucket per power of two nanoseconds, so recording is a
+ * leading-zero count and a {@link LongAdder} increment. Percentiles are reported
+ * as the upper bound of the bucket they fall in.
+ *
+ * <p>Parses are counted for at most as many schemas as the schema cache holds;
+ * parses of any further schema are counted under {@value #OTHER_SCHEMAS}.
+ */
+public final class ArgsMetrics implements ArgsMetricsMXBean {
+    public static final String OBJECT_NAME = "com.objectmentor.utilities.args:type=ArgsMetrics";
+    public static final String OTHER_SCHEMAS = "(other)";
+    private static final int LATENCY_BUCKETS = 64;
+    private static final ArgsException.ErrorCode[] ERROR_CODES = ArgsException.ErrorCode.values();
+    private static volatile ArgsMetrics current;
+
+    private final ConcurrentHashMap<String, LongAdder> parsesBySchema = new ConcurrentHashMap<String, LongAdder>();
+    private final LongAdder[] errors = newAdders(ERROR_CODES.length);
+    private final LongAdder[] latency = newAdders(LATENCY_BUCKETS);
+
+    private ArgsMetrics() {
+    }
+
+    public static synchronized ArgsMetrics enable() {
+        if (current == null) {
+            ArgsMetrics metrics = new ArgsMetrics();
+            Registration.register(metrics);
+            current = metrics;
+        }
+        return current;
+    }
+
+    public static synchronized void disable() {
+        if (current != null) {
+            current = null;
+            Registration.unregister();
+        }
+    }
+
+    static ArgsMetrics current() {
+        return current;
+    }
+
+    private static LongAdder[] newAdders(int count) {
+        LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++)
+            adders[i] = new LongAdder();
+        return adders;
+    }
+
+    void recordParse(ArgsSchema schema, long elapsedNanos, ArgsException.ErrorCode errorCode) {
+        LongAdder parses = parsesBySchema.get(schema.getText());
+        if (parses == null) {
+            String key = parsesBySchema.size() < ArgsSchema.MAX_CACHED_SCHEMAS ? schema.getText() : OTHER_SCHEMAS;
+            parses = parsesBySchema.computeIfAbsent(key, text -> new LongAdder());
+        }
+        parses.increment();
+        if (errorCode != ArgsException.ErrorCode.OK)
+            errors[errorCode.ordinal()].increment();
+        latency[bucketOf(elapsedNanos)].increment();
+    }
+
+    private static int bucketOf(long nanos) {
+        return nanos <= 0 ? 0 : LATENCY_BUCKETS - Long.numberOfLeadingZeros(nanos) - 1;
+    }
+
+    public long getParseCount() {
+        long count = 0;
+        for (LongAdder parses : parsesBySchema.values())
+            count += parses.sum();
+        return count;
+    }
+
+    public long getFailureCount() {
+        long count = 0;
+        for (LongAdder failures : errors)
+            count += failures.sum();
+        return count;
+    }
+
+    public Map<String, Long> getParseCountBySchema() {
+        Map<String, Long> counts = new TreeMap<String, Long>();
+        for (Map.Entry<String, LongAdder> parses : parsesBySchema.entrySet())
+            counts.put(parses.getKey(), parses.getValue().sum());
+        return counts;
+    }
+
+    public Map<String, Long> getErrorCountByCode() {
+        Map<String, Long> counts = new TreeMap<String, Long>();
+        for (int i = 0; i < ERROR_CODES.length; i++)
+            if (ERROR_CODES[i] != ArgsException.ErrorCode.OK)
+                counts.put(ERROR_CODES[i].name(), errors[i].sum());
+        return counts;
+    }
+
+    public long getErrorCount(ArgsException.ErrorCode errorCode) {
+        return errors[errorCode.ordinal()].sum();
+    }
+
+    public long[] getLatencyHistogram() {
+        long[] counts = new long[LATENCY_BUCKETS];
+        for (int i = 0; i < LATENCY_BUCKETS; i++)
+            counts[i] = latency[i].sum();
+        return counts;
+    }
+
+    public long getLatencyPercentileNanos(double percentile) {
+        long[] counts = getLatencyHistogram();
+        long total = 0;
+        for (long count : counts)
+            total += count;
+        if (total == 0)
+            return 0;
+        long rank = (long) Math.ceil(total * Math.min(Math.max(percentile, 0), 100) / 100);
+        long seen = 0;
+        for (int i = 0; i < LATENCY_BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= Math.max(rank, 1))
+                return i == LATENCY_BUCKETS - 1 ? Long.MAX_VALUE : (2L << i) - 1;
+        }
+        return Long.MAX_VALUE;
+    }
+
+    public void reset() {
+        parsesBySchema.clear();
+        for (LongAdder failures : errors)
+            failures.reset();
+        for (LongAdder bucket : latency)
+            bucket.reset();
+    }
+
+    /**
+     * Keeps the {@code java.management} types out of {@link ArgsMetrics}, so that a
+     * parse on a runtime without that module only reads {@link #current}.
+     */
+    private static final class Registration {
+        static void register(ArgsMetrics metrics) {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            try {
+                ObjectName name = new ObjectName(OBJECT_NAME);
+                try {
+                    server.registerMBean(metrics, name);
+                } catch (InstanceAlreadyExistsException e) {
+                    server.unregisterMBean(name);
+                    server.registerMBean(metrics, name);
+                }
+            } catch (JMException e) {
+                throw new IllegalStateException("Could not register " + OBJECT_NAME, e);
+            }
+        }
+
+        static void unregister() {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(new ObjectName(OBJECT_NAME));
+            } catch (InstanceNotFoundException e) {
+                // already gone
+            } catch (JMException e) {
+                throw new IllegalStateException("Could not unregister " + OBJECT_NAME, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.objectmentor.utilities.args;
+
+import java.util.Map;
+
+/**
+ * The management view of {@link ArgsMetrics}, registered as
+ * {@value ArgsMetrics#OBJECT_NAME}.
+ */
+public interface ArgsMetricsMXBean {
+    long getParseCount();
+
+    long getFailureCount();
+
+    Map<String, Long> getParseCountBySchema();
+
+    Map<String, Long> getErrorCountByCode();
+
+    long[] getLatencyHistogram();
+
+    long getLatencyPercentileNanos(double percentile);
+
+    void reset();
+}
@@ -0,0 +1,27 @@
+package com.objectmentor.utilities.args;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.objectmentor.utilities.args.ArgsParse")
+@Label("Args Parse")
+@Category("Args")
+@Description("One argument vector or command line parsed against a schema")
+@Enabled(false)
+final class ArgsParseEvent extends jdk.jfr.Event {
+    @Label("Schema")
+    String schema;
+
+    @Label("Arguments Read")
+    @Description("Arguments consumed as options and their values, the same count as Args.nextArgument()")
+    int argumentCount;
+
+    @Label("Options Found")
+    int optionsFound;
+
+    @Label("Error Code")
+    String errorCode;
+}
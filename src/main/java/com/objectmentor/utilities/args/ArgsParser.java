@@ -0,0 +1,35 @@
+package com.objectmentor.utilities.args;
+
+/**
+ * A parser bound to one compiled schema that reuses all of its state from one
+ * parse to the next. Once warm it allocates nothing apart from the values it
+ * hands out. An instance is not thread-safe; confine it to one thread or pool it.
+ * The {@link ParseResult} and {@link Args} it returns are overwritten by the next
+ * call to {@link #parse(String[])} or {@link #reset()}; use {@link Args#snapshot()}
+ * to keep a result.
+ */
+public final class ArgsParser {
+    private static final String[] NO_ARGUMENTS = new String[0];
+
+    private final Args args;
+    private final ParseResult result;
+    private final ArgumentCursor cursor = new ArgumentCursor(NO_ARGUMENTS);
+
+    public ArgsParser(ArgsSchema schema) {
+        args = Args.reusable(schema);
+        result = new ParseResult(args);
+    }
+
+    public ParseResult parse(String[] argv) {
+        result.reset();
+        cursor.reset(argv);
+        args.parseAgain(cursor, result);
+        return result;
+    }
+
+    public void reset() {
+        result.reset();
+        args.reset();
+        cursor.reset(NO_ARGUMENTS);
+    }
+}
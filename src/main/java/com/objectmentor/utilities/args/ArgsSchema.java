@@ -0,0 +1,426 @@
+package com.objectmentor.utilities.args;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.objectmentor.utilities.args.ArgsException.ErrorCode.*;
+
+/**
+ * An immutable, compiled form of an {@link Args} schema string. Compiled schemas
+ * are cached by their text, so a schema is parsed once per process no matter how
+ * many argument vectors are checked against it.
+ *
+ * <p>An element is named by a letter ({@code p#}, given as {@code -p}), a long name
+ * ({@code port#}, given as {@code --port} or {@code --port=value}) or both
+ * ({@code p|port#}). Letters dispatch through a table indexed by char; long names
+ * through a {@link LongNameTable perfect hash}.
+ *
+ * <p>A type may be followed by {@code !} to make the element required
+ * ({@code p#!}) or by {@code =value} to give it a default ({@code d*=/tmp}).
+ * Defaults are converted when the schema is compiled and copied into each
+ * result; required elements form a mask that is checked against the found mask
+ * once parsing ends.
+ */
+public final class ArgsSchema {
+    static final int MAX_CACHED_SCHEMAS = 256;
+    static final int NO_ELEMENT = -1;
+    static final char NO_ID = '\0';
+    private static final int DISPATCH_TABLE_SIZE = 128;
+    private static final ConcurrentHashMap<String, ArgsSchema> cache =
+        new ConcurrentHashMap<String, ArgsSchema>();
+
+    private final String text;
+    private final char[] ids;
+    private final String[] names;
+    private final ArgumentType[] types;
+    private final int[] slots;
+    private final int[] slotCounts = new int[ArgumentValues.STORAGE_KINDS];
+    private final int[] ordinalByChar = new int[DISPATCH_TABLE_SIZE];
+    private final LongNameTable ordinalByName;
+    private final long[] requiredMask;
+    private final ArgumentValues defaults;
+    private volatile CompiledParser compiledParser;
+    private volatile Completer completer;
+
+    private ArgsSchema(String text, List<Element> elements) {
+        this.text = text;
+        this.ids = new char[elements.size()];
+        this.names = new String[elements.size()];
+        this.types = new ArgumentType[elements.size()];
+        this.slots = new int[elements.size()];
+        this.requiredMask = new long[(elements.size() + 63) >>> 6];
+        Arrays.fill(ordinalByChar, NO_ELEMENT);
+        for (int i = 0; i < elements.size(); i++) {
+            Element element = elements.get(i);
+            ids[i] = element.id;
+            names[i] = element.name;
+            types[i] = element.type;
+            slots[i] = slotCounts[types[i].storage()]++;
+            if (ids[i] != NO_ID)
+                ordinalByChar[ids[i]] = i;
+            if (element.required)
+                requiredMask[i >>> 6] |= 1L << i;
+        }
+        ordinalByName = LongNameTable.build(names);
+        defaults = defaultValues(elements);
+    }
+
+    private ArgumentValues defaultValues(List<Element> elements) {
+        ArgumentValues values = null;
+        for (int i = 0; i < elements.size(); i++) {
+            Object value = elements.get(i).defaultValue;
+            if (value == null)
+                continue;
+            if (values == null)
+                values = new ArgumentValues(slotCounts[ArgumentValues.BOOLEANS], slotCounts[ArgumentValues.INTS],
+                    slotCounts[ArgumentValues.LONGS], slotCounts[ArgumentValues.DOUBLES],
+                    slotCounts[ArgumentValues.OBJECTS]);
+            if (types[i] == ArgumentType.INTEGER)
+                values.ints[slots[i]] = (Integer) value;
+            else if (types[i] == ArgumentType.LONG)
+                values.longs[slots[i]] = (Long) value;
+            else if (types[i] == ArgumentType.DOUBLE)
+                values.doubles[slots[i]] = (Double) value;
+            else
+                values.objects[slots[i]] = value;
+        }
+        return values;
+    }
+
+    public static ArgsSchema compile(String schema) throws ArgsException {
+        ArgsSchema compiled = cache.get(schema);
+        if (compiled == null) {
+            Object event = ArgsEvents.beginCompile();
+            compiled = new ArgsSchema(schema, parseSchema(schema));
+            ArgsEvents.endCompile(event, schema, compiled.size());
+            evictIfFull();
+            ArgsSchema previous = cache.putIfAbsent(schema, compiled);
+            if (previous != null)
+                compiled = previous;
+        }
+        return compiled;
+    }
+
+    private static void evictIfFull() {
+        Iterator<String> cached = cache.keySet().iterator();
+        while (cache.size() >= MAX_CACHED_SCHEMAS && cached.hasNext()) {
+            cached.next();
+            cached.remove();
+        }
+    }
+
+    static void clearCache() {
+        cache.clear();
+    }
+
+    static int cachedSchemaCount() {
+        return cache.size();
+    }
+
+    private static List<Element> parseSchema(String schema) throws ArgsException {
+        Elements elements = new Elements();
+        int start = 0;
+        while (start <= schema.length()) {
+            int end = schema.indexOf(',', start);
+            if (end < 0)
+                end = schema.length();
+            String element = schema.substring(start, end).trim();
+            if (element.length() > 0)
+                parseSchemaElement(element, elements);
+            start = end + 1;
+        }
+        return elements.list;
+    }
+
+    private static void parseSchemaElement(String element, Elements elements) throws ArgsException {
+        int namesEnd = 0;
+        while (namesEnd < element.length() && isNameChar(element.charAt(namesEnd)))
+            namesEnd++;
+        if (namesEnd == 0)
+            throw new ArgsException(INVALID_ARGUMENT_NAME, element.charAt(0), null);
+        Element parsed = parseElementNames(element.substring(0, namesEnd));
+        String elementTail = element.substring(namesEnd);
+        int equals = elementTail.indexOf('=');
+        String typeTail = equals < 0 ? elementTail : elementTail.substring(0, equals);
+        parsed.required = typeTail.endsWith("!");
+        if (parsed.required)
+            typeTail = typeTail.substring(0, typeTail.length() - 1);
+        parsed.type = ArgumentType.forTail(typeTail);
+        if (parsed.type == null || parsed.required && equals >= 0)
+            throw elementError(INVALID_ARGUMENT_FORMAT, parsed, elementTail);
+        if (equals >= 0)
+            parsed.defaultValue = parseDefault(parsed, elementTail.substring(equals + 1), elementTail);
+        addElement(parsed, elements);
+    }
+
+    private static Object parseDefault(Element element, String text, String elementTail) throws ArgsException {
+        ParseResult result = new ParseResult();
+        Object value;
+        switch (element.type) {
+            case STRING:
+                return text;
+            case INTEGER:
+                value = (int) DecimalParser.parseLong(text, Integer.MIN_VALUE, Integer.MAX_VALUE, INVALID_INTEGER, result);
+                break;
+            case LONG:
+                value = DecimalParser.parseLong(text, Long.MIN_VALUE, Long.MAX_VALUE, INVALID_LONG, result);
+                break;
+            case DOUBLE:
+                value = DecimalParser.parseDouble(text, INVALID_DOUBLE, result);
+                break;
+            default:
+                throw elementError(INVALID_ARGUMENT_FORMAT, element, elementTail);
+        }
+        if (result.isOk())
+            return value;
+        ArgsException e = elementError(result.getErrorCode(), element, text);
+        e.setErrorOffset(result.getErrorOffset());
+        throw e;
+    }
+
+    private static Element parseElementNames(String names) throws ArgsException {
+        Element element = new Element();
+        int bar = names.indexOf('|');
+        if (bar < 0 && names.length() == 1)
+            element.id = names.charAt(0);
+        else if (bar < 0)
+            element.name = names;
+        else if (bar == 1 && names.indexOf('|', bar + 1) < 0) {
+            element.id = names.charAt(0);
+            element.name = names.substring(bar + 1);
+        } else
+            throw new ArgsException(INVALID_ARGUMENT_NAME, names.charAt(0), null);
+        if (element.id != NO_ID)
+            validateSchemaElementId(element.id);
+        if (element.name != null)
+            validateSchemaElementName(element.name);
+        return element;
+    }
+
+    private static void addElement(Element element, Elements elements) throws ArgsException {
+        Element byId = element.id == NO_ID ? null : elements.byId.get(element.id);
+        Element byName = element.name == null ? null : elements.byName.get(element.name);
+        Element existing = byId != null ? byId : byName;
+        if (existing == null) {
+            elements.list.add(element);
+            elements.index(element);
+            return;
+        }
+        if (byId != null && byName != null && byId != byName
+            || element.id != NO_ID && existing.id != NO_ID && existing.id != element.id
+            || element.name != null && existing.name != null && !existing.name.equals(element.name))
+            throw elementError(INVALID_ARGUMENT_NAME, element, null);
+        if (element.id != NO_ID)
+            existing.id = element.id;
+        if (element.name != null)
+            existing.name = element.name;
+        elements.index(existing);
+        existing.type = element.type;
+        existing.required = element.required;
+        existing.defaultValue = element.defaultValue;
+    }
+
+    private static ArgsException elementError(ArgsException.ErrorCode errorCode, Element element, String parameter) {
+        ArgsException e = new ArgsException(errorCode, element.id, parameter);
+        if (element.id == NO_ID)
+            e.setErrorArgumentName(element.name);
+        return e;
+    }
+
+    private static void validateSchemaElementId(char elementId) throws ArgsException {
+        if (!isAsciiLetter(elementId))
+            throw new ArgsException(INVALID_ARGUMENT_NAME, elementId, null);
+    }
+
+    private static void validateSchemaElementName(String name) throws ArgsException {
+        if (name.length() < 2 || !isAsciiLetter(name.charAt(0)) || name.indexOf('|') >= 0) {
+            ArgsException e = new ArgsException(INVALID_ARGUMENT_NAME, name.charAt(0), null);
+            e.setErrorArgumentName(name);
+            throw e;
+        }
+    }
+
+    private static boolean isNameChar(char c) {
+        return isAsciiLetter(c) || c >= '0' && c <= '9' || c == '-' || c == '|';
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    public synchronized ArgsSchema specialize() {
+        if (compiledParser == null)
+            compiledParser = SchemaCompiler.compile(this);
+        return this;
+    }
+
+    public boolean isSpecialized() {
+        return compiledParser != null;
+    }
+
+    CompiledParser compiledParser() {
+        return compiledParser;
+    }
+
+    public Completer completer() {
+        Completer built = completer;
+        if (built == null)
+            completer = built = new Completer(this);
+        return built;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public ArgKey<Boolean> booleanKey(char id) {
+        return key(id, ArgumentType.BOOLEAN);
+    }
+
+    public ArgKey<String> stringKey(char id) {
+        return key(id, ArgumentType.STRING);
+    }
+
+    public ArgKey<Integer> intKey(char id) {
+        return key(id, ArgumentType.INTEGER);
+    }
+
+    public ArgKey<Long> longKey(char id) {
+        return key(id, ArgumentType.LONG);
+    }
+
+    public ArgKey<Double> doubleKey(char id) {
+        return key(id, ArgumentType.DOUBLE);
+    }
+
+    public ArgKey<String[]> stringArrayKey(char id) {
+        return key(id, ArgumentType.STRING_ARRAY);
+    }
+
+    public ArgKey<Boolean> booleanKey(String name) {
+        return key(name, ArgumentType.BOOLEAN);
+    }
+
+    public ArgKey<String> stringKey(String name) {
+        return key(name, ArgumentType.STRING);
+    }
+
+    public ArgKey<Integer> intKey(String name) {
+        return key(name, ArgumentType.INTEGER);
+    }
+
+    public ArgKey<Long> longKey(String name) {
+        return key(name, ArgumentType.LONG);
+    }
+
+    public ArgKey<Double> doubleKey(String name) {
+        return key(name, ArgumentType.DOUBLE);
+    }
+
+    public ArgKey<String[]> stringArrayKey(String name) {
+        return key(name, ArgumentType.STRING_ARRAY);
+    }
+
+    private <T> ArgKey<T> key(char id, ArgumentType type) {
+        return key(ordinalOf(id), "-" + id, type);
+    }
+
+    private <T> ArgKey<T> key(String name, ArgumentType type) {
+        return key(ordinalOf(name), "--" + name, type);
+    }
+
+    private <T> ArgKey<T> key(int ordinal, String argument, ArgumentType type) {
+        if (ordinal == NO_ELEMENT)
+            throw new IllegalArgumentException(String.format("Schema '%s' has no argument %s.", text, argument));
+        if (types[ordinal] != type)
+            throw new IllegalArgumentException(
+                String.format("Argument %s is %s, not %s.", argument, types[ordinal], type));
+        return new ArgKey<T>(this, ids[ordinal], names[ordinal], ordinal, slots[ordinal]);
+    }
+
+    char idAt(int index) {
+        return ids[index];
+    }
+
+    String nameAt(int index) {
+        return names[index];
+    }
+
+    ArgumentType typeAt(int index) {
+        return types[index];
+    }
+
+    int slotAt(int index) {
+        return slots[index];
+    }
+
+    int slotCount(int storage) {
+        return slotCounts[storage];
+    }
+
+    int ordinalOf(char id) {
+        return id < DISPATCH_TABLE_SIZE ? ordinalByChar[id] : NO_ELEMENT;
+    }
+
+    int ordinalOf(String name) {
+        return name == null ? NO_ELEMENT : ordinalOf(name, 0, name.length());
+    }
+
+    int ordinalOf(CharSequence text, int start, int end) {
+        return ordinalByName.ordinalOf(text, start, end);
+    }
+
+    int slotOf(char id, ArgumentType type) {
+        return slotOf(ordinalOf(id), type);
+    }
+
+    int slotOf(String name, ArgumentType type) {
+        return slotOf(ordinalOf(name), type);
+    }
+
+    private int slotOf(int ordinal, ArgumentType type) {
+        return ordinal != NO_ELEMENT && types[ordinal] == type ? slots[ordinal] : NO_ELEMENT;
+    }
+
+    int foundWords() {
+        return (ids.length + 63) >>> 6;
+    }
+
+    int missingRequired(long[] found) {
+        for (int word = 0; word < requiredMask.length; word++) {
+            long missing = requiredMask[word] & ~found[word];
+            if (missing != 0)
+                return word << 6 | Long.numberOfTrailingZeros(missing);
+        }
+        return NO_ELEMENT;
+    }
+
+    ArgumentValues defaults() {
+        return defaults;
+    }
+
+    private static class Element {
+        char id = NO_ID;
+        String name;
+        ArgumentType type;
+        boolean required;
+        Object defaultValue;
+    }
+
+    private static final class Elements {
+        final List<Element> list = new ArrayList<Element>();
+        final Map<Character, Element> byId = new HashMap<Character, Element>();
+        final Map<String, Element> byName = new HashMap<String, Element>();
+
+        void index(Element element) {
+            if (element.id != NO_ID)
+                byId.put(element.id, element);
+            if (element.name != null)
+                byName.put(element.name, element);
+        }
+    }
+}
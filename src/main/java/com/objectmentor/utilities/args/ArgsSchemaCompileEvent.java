@@ -0,0 +1,20 @@
+package com.objectmentor.utilities.args;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.objectmentor.utilities.args.ArgsSchemaCompile")
+@Label("Args Schema Compile")
+@Category("Args")
+@Description("A schema string compiled by ArgsSchema.compile on a cache miss")
+@Enabled(false)
+final class ArgsSchemaCompileEvent extends jdk.jfr.Event {
+    @Label("Schema")
+    String schema;
+
+    @Label("Element Count")
+    int elementCount;
+}
@@ -0,0 +1,65 @@
+package com.objectmentor.utilities.args;
+
+/**
+ * A position in the arguments being parsed, handed to {@link CursorMarshaler}s to
+ * read their values. It walks either an argument array by index or a tokenized
+ * command line. Running out of arguments is reported by {@link #hasNext()} and a
+ * {@code null} from {@link #peek()}, never by an exception.
+ */
+public final class ArgumentCursor {
+    private String[] arguments;
+    private int index;
+    private final ArgumentTokenizer tokenizer;
+
+    public ArgumentCursor(String[] arguments) {
+        this.arguments = arguments;
+        this.tokenizer = null;
+    }
+
+    ArgumentCursor(ArgumentTokenizer tokenizer) {
+        this.tokenizer = tokenizer;
+    }
+
+    void reset(String[] arguments) {
+        this.arguments = arguments;
+        this.index = 0;
+    }
+
+    public boolean hasNext() {
+        return tokenizer == null ? index < arguments.length : tokenizer.hasNext();
+    }
+
+    public String peek() {
+        if (tokenizer == null)
+            return index < arguments.length ? arguments[index] : null;
+        return tokenizer.hasNext() ? tokenizer.peek() : null;
+    }
+
+    CharSequence peekChars() {
+        if (tokenizer == null)
+            return index < arguments.length ? arguments[index] : null;
+        return tokenizer.hasNext() ? tokenizer.peekChars() : null;
+    }
+
+    public void advance() {
+        if (tokenizer == null) {
+            if (index < arguments.length)
+                index++;
+        } else
+            tokenizer.skip();
+    }
+
+    public String next() {
+        String argument = peek();
+        advance();
+        return argument;
+    }
+
+    public int index() {
+        return tokenizer == null ? index : tokenizer.tokensTaken();
+    }
+
+    String[] arguments() {
+        return arguments;
+    }
+}
@@ -4,4 +4,13 @@ import java.util.Iterator;
 
 public interface ArgumentMarshaller {
     public void set(Iterator<String> currentArgument) throws ArgsException;
+
+    public default boolean trySet(Iterator<String> currentArgument, ParseResult result) {
+        try {
+            set(currentArgument);
+            return true;
+        } catch (ArgsException e) {
+            return result.fail(e.getErrorCode(), e.getErrorParameter(), e.getErrorOffset());
+        }
+    }
 }
@@ -0,0 +1,129 @@
+package com.objectmentor.utilities.args;
+
+/**
+ * Splits input into arguments with POSIX-shell-like rules: whitespace separates
+ * arguments, single quotes are literal, double quotes allow backslash escapes of
+ * {@code " \ $ `} and backslash escapes any character outside quotes. Tokens are
+ * decoded into a reused buffer; a String is only created by {@link #peek()}.
+ * {@link #peekChars()} exposes the buffer itself, valid until the next skip.
+ */
+abstract class ArgumentTokenizer {
+    static final int END = -1;
+
+    private StringBuilder token = new StringBuilder();
+    private StringBuilder spare = new StringBuilder();
+    private boolean tokenReady;
+    private String peeked;
+    private int tokenOffset;
+    private int tokensTaken;
+    private int errorOffset = ArgsException.NO_OFFSET;
+
+    abstract int peekChar();
+
+    abstract void skipChar();
+
+    abstract int offset();
+
+    boolean hasNext() {
+        return tokenReady || (tokenReady = readToken());
+    }
+
+    String peek() {
+        if (peeked == null)
+            peeked = token.toString();
+        return peeked;
+    }
+
+    CharSequence peekChars() {
+        return peeked != null ? peeked : token;
+    }
+
+    void skip() {
+        if (hasNext()) {
+            tokenReady = false;
+            peeked = null;
+            tokensTaken++;
+        }
+    }
+
+    boolean nextIsFlag() {
+        return hasNext() && token.length() > 0 && token.charAt(0) == '-';
+    }
+
+    CharSequence takeFlag() {
+        StringBuilder flag = token;
+        token = spare;
+        spare = flag;
+        skip();
+        return flag;
+    }
+
+    int tokenOffset() {
+        return tokenOffset;
+    }
+
+    int tokensTaken() {
+        return tokensTaken;
+    }
+
+    int errorOffset() {
+        return errorOffset;
+    }
+
+    private boolean readToken() {
+        while (peekChar() != END && Character.isWhitespace(peekChar()))
+            skipChar();
+        if (peekChar() == END || errorOffset != ArgsException.NO_OFFSET)
+            return false;
+        token.setLength(0);
+        tokenOffset = offset();
+        for (int c = peekChar(); c != END && !Character.isWhitespace(c); c = peekChar()) {
+            int quoteOffset = offset();
+            skipChar();
+            if (c == '\'' && !appendSingleQuoted() || c == '"' && !appendDoubleQuoted()) {
+                errorOffset = quoteOffset;
+                return false;
+            } else if (c == '\\')
+                appendEscaped();
+            else if (c != '\'' && c != '"')
+                token.append((char) c);
+        }
+        return true;
+    }
+
+    private boolean appendSingleQuoted() {
+        for (int c = peekChar(); c != END; c = peekChar()) {
+            skipChar();
+            if (c == '\'')
+                return true;
+            token.append((char) c);
+        }
+        return false;
+    }
+
+    private boolean appendDoubleQuoted() {
+        for (int c = peekChar(); c != END; c = peekChar()) {
+            skipChar();
+            if (c == '"')
+                return true;
+            if (c == '\\' && isDoubleQuoteEscape(peekChar())) {
+                c = peekChar();
+                skipChar();
+            }
+            token.append((char) c);
+        }
+        return false;
+    }
+
+    private static boolean isDoubleQuoteEscape(int c) {
+        return c == '"' || c == '\\' || c == '$' || c == '`';
+    }
+
+    private void appendEscaped() {
+        int c = peekChar();
+        if (c != END) {
+            skipChar();
+            token.append((char) c);
+        }
+    }
+}
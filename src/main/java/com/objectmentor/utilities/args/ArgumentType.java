@@ -0,0 +1,55 @@
+package com.objectmentor.utilities.args;
+
+enum ArgumentType {
+    BOOLEAN("", ArgumentValues.BOOLEANS) {
+        boolean set(ArgumentCursor cursor, ArgumentValues values, int slot, ParseResult result) {
+            return BooleanArgumentMarshaler.set(cursor, values, slot, result);
+        }
+    },
+    STRING("*", ArgumentValues.OBJECTS) {
+        boolean set(ArgumentCursor cursor, ArgumentValues values, int slot, ParseResult result) {
+            return StringArgumentMarshaler.set(cursor, values, slot, result);
+        }
+    },
+    INTEGER("#", ArgumentValues.INTS) {
+        boolean set(ArgumentCursor cursor, ArgumentValues values, int slot, ParseResult result) {
+            return IntegerArgumentMarshaler.set(cursor, values, slot, result);
+        }
+    },
+    LONG("#L", ArgumentValues.LONGS) {
+        boolean set(ArgumentCursor cursor, ArgumentValues values, int slot, ParseResult result) {
+            return LongArgumentMarshaler.set(cursor, values, slot, result);
+        }
+    },
+    DOUBLE("##", ArgumentValues.DOUBLES) {
+        boolean set(ArgumentCursor cursor, ArgumentValues values, int slot, ParseResult result) {
+            return DoubleArgumentMarshaler.set(cursor, values, slot, result);
+        }
+    },
+    STRING_ARRAY("[*]", ArgumentValues.OBJECTS) {
+        boolean set(ArgumentCursor cursor, ArgumentValues values, int slot, ParseResult result) {
+            return StringArrayArgumentMarshaler.set(cursor, values, slot, result);
+        }
+    };
+
+    private final String tail;
+    private final int storage;
+
+    ArgumentType(String tail, int storage) {
+        this.tail = tail;
+        this.storage = storage;
+    }
+
+    int storage() {
+        return storage;
+    }
+
+    abstract boolean set(ArgumentCursor cursor, ArgumentValues values, int slot, ParseResult result);
+
+    static ArgumentType forTail(String elementTail) {
+        for (ArgumentType type : values())
+            if (type.tail.equals(elementTail))
+                return type;
+        return null;
+    }
+}
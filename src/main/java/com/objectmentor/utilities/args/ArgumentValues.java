@@ -0,0 +1,78 @@
+package com.objectmentor.utilities.args;
+
+import java.util.Arrays;
+
+/**
+ * Parsed values laid out by type: every schema element owns one slot in the array
+ * for its type, so a result costs a handful of small arrays rather than an object
+ * per option. Booleans are bits, 64 to a long. Values start out as, and are
+ * cleared back to, the schema's converted defaults.
+ */
+final class ArgumentValues {
+    static final int BOOLEANS = 0;
+    static final int INTS = 1;
+    static final int LONGS = 2;
+    static final int DOUBLES = 3;
+    static final int OBJECTS = 4;
+    static final int STORAGE_KINDS = 5;
+
+    final long[] booleans;
+    final int[] ints;
+    final long[] longs;
+    final double[] doubles;
+    final Object[] objects;
+    private final ArgumentValues defaults;
+
+    ArgumentValues(ArgsSchema schema) {
+        this(schema.slotCount(BOOLEANS), schema.slotCount(INTS), schema.slotCount(LONGS), schema.slotCount(DOUBLES),
+            schema.slotCount(OBJECTS), schema.defaults());
+    }
+
+    ArgumentValues(int booleanCount, int intCount, int longCount, int doubleCount, int objectCount) {
+        this(booleanCount, intCount, longCount, doubleCount, objectCount, null);
+    }
+
+    private ArgumentValues(int booleanCount, int intCount, int longCount, int doubleCount, int objectCount,
+                           ArgumentValues defaults) {
+        booleans = new long[(booleanCount + 63) >>> 6];
+        ints = new int[intCount];
+        longs = new long[longCount];
+        doubles = new double[doubleCount];
+        objects = new Object[objectCount];
+        this.defaults = defaults;
+        if (defaults != null)
+            clear();
+    }
+
+    void clear() {
+        Arrays.fill(booleans, 0);
+        if (defaults == null) {
+            Arrays.fill(ints, 0);
+            Arrays.fill(longs, 0);
+            Arrays.fill(doubles, 0);
+        } else {
+            System.arraycopy(defaults.ints, 0, ints, 0, ints.length);
+            System.arraycopy(defaults.longs, 0, longs, 0, longs.length);
+            System.arraycopy(defaults.doubles, 0, doubles, 0, doubles.length);
+        }
+        for (int i = 0; i < objects.length; i++)
+            if (objects[i] instanceof StringArrayValue)
+                ((StringArrayValue) objects[i]).reset();
+            else
+                objects[i] = defaults == null ? null : defaults.objects[i];
+    }
+
+    boolean getBoolean(int slot) {
+        return (booleans[slot >>> 6] & 1L << slot) != 0;
+    }
+
+    String getString(int slot) {
+        String value = (String) objects[slot];
+        return value == null ? "" : value;
+    }
+
+    StringArrayValue getStringArray(int slot) {
+        StringArrayValue value = (StringArrayValue) objects[slot];
+        return value == null ? StringArrayValue.EMPTY : value;
+    }
+}
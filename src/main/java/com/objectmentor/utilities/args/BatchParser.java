@@ -0,0 +1,82 @@
+package com.objectmentor.utilities.args;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import java.util.stream.StreamSupport;
+
+/**
+ * Parses many argument vectors against one compiled schema on a fork/join pool.
+ * Every row gets a {@link ParseResult}; invalid rows are reported through it, so a
+ * batch never throws or fills in a stack trace on bad input.
+ */
+public final class BatchParser {
+    static final int ROWS_PER_TASK = 1024;
+
+    private BatchParser() {
+    }
+
+    public static List<ParseResult> parseAll(ArgsSchema schema, List<String[]> argvs) {
+        return parseAll(schema, argvs, ForkJoinPool.commonPool());
+    }
+
+    public static List<ParseResult> parseAll(ArgsSchema schema, List<String[]> argvs, ForkJoinPool pool) {
+        List<String[]> rows = argvs instanceof RandomAccess ? argvs : new ArrayList<String[]>(argvs);
+        ParseResult[] results = new ParseResult[rows.size()];
+        pool.invoke(new ParseTask(schema, rows, results, 0, results.length));
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Parses rows as the spliterator splits them and hands each result to
+     * {@code results} as soon as it is ready. The consumer is called from the worker
+     * threads of {@code pool}, possibly concurrently, so it must be thread-safe.
+     * Results arrive in no particular order and carry no row index; use
+     * {@link #parseAll(ArgsSchema, List, ForkJoinPool)} when the input order matters.
+     * Returns once every row has been delivered.
+     */
+    public static void parseAll(final ArgsSchema schema, final Spliterator<String[]> argvs,
+                                final Consumer<? super ParseResult> results, ForkJoinPool pool) {
+        pool.submit(new Runnable() {
+            public void run() {
+                StreamSupport.stream(argvs, true).forEach(new Consumer<String[]>() {
+                    public void accept(String[] argv) {
+                        results.accept(Args.parse(schema, argv));
+                    }
+                });
+            }
+        }).join();
+    }
+
+    private static final class ParseTask extends RecursiveAction {
+        private final ArgsSchema schema;
+        private final List<String[]> argvs;
+        private final ParseResult[] results;
+        private final int from;
+        private final int to;
+
+        ParseTask(ArgsSchema schema, List<String[]> argvs, ParseResult[] results, int from, int to) {
+            this.schema = schema;
+            this.argvs = argvs;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        protected void compute() {
+            if (to - from <= ROWS_PER_TASK) {
+                for (int i = from; i < to; i++)
+                    results[i] = Args.parse(schema, argvs.get(i));
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new ParseTask(schema, argvs, results, from, middle),
+                    new ParseTask(schema, argvs, results, middle, to));
+            }
+        }
+    }
+}
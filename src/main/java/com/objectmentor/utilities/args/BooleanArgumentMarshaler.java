@@ -2,17 +2,35 @@ package com.objectmentor.utilities.args;
 
 import java.util.Iterator;
 
-public class BooleanArgumentMarshaler implements ArgumentMarshaller {
+public class BooleanArgumentMarshaler implements ArgumentMarshaller, CursorMarshaler {
+    private final ArgumentValues values;
+    private final int slot;
 
-    private boolean booleanValue = false;
+    public BooleanArgumentMarshaler() {
+        this(new ArgumentValues(1, 0, 0, 0, 0), 0);
+    }
+
+    BooleanArgumentMarshaler(ArgumentValues values, int slot) {
+        this.values = values;
+        this.slot = slot;
+    }
 
     public void set(Iterator<String> currentArgument) throws ArgsException {
-        booleanValue = true;
+        values.booleans[slot >>> 6] |= 1L << slot;
+    }
+
+    public boolean set(ArgumentCursor cursor, ParseResult result) {
+        return set(cursor, values, slot, result);
+    }
+
+    static boolean set(ArgumentCursor cursor, ArgumentValues values, int slot, ParseResult result) {
+        values.booleans[slot >>> 6] |= 1L << slot;
+        return true;
     }
 
     public static boolean getValue(ArgumentMarshaller am) {
         if (am != null && am instanceof BooleanArgumentMarshaler)
-            return ((BooleanArgumentMarshaler) am).booleanValue;
+            return ((BooleanArgumentMarshaler) am).values.getBoolean(((BooleanArgumentMarshaler) am).slot);
         else
             return false;
     }
@@ -0,0 +1,26 @@
+package com.objectmentor.utilities.args;
+
+final class CharSequenceArgumentTokenizer extends ArgumentTokenizer {
+    private final CharSequence input;
+    private final int end;
+    private int position;
+
+    CharSequenceArgumentTokenizer(CharSequence input, int start, int end) {
+        this.input = input;
+        this.position = start;
+        this.end = end;
+    }
+
+    int peekChar() {
+        return position < end ? input.charAt(position) : END;
+    }
+
+    void skipChar() {
+        if (position < end)
+            position++;
+    }
+
+    int offset() {
+        return position;
+    }
+}
@@ -0,0 +1,377 @@
+package com.objectmentor.utilities.args;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Stores parsed results for one schema in off-heap columns, one row per result.
+ * Each row has a presence mask (the found words of its {@link Args}, which also
+ * are the values of its boolean options) and an error code. Each numeric option
+ * has a fixed-width column. Each string option has a column of (offset, length)
+ * pairs into a shared UTF-8 byte heap; a string array is stored in the heap as an
+ * element count followed by length-prefixed elements. A failed row stores zeros,
+ * and a zero-length reference reads as an empty string or array.
+ *
+ * <p>Reading a numeric or boolean value is an absolute get on a direct buffer and
+ * creates no objects. A sink has a single writer; readers may run concurrently
+ * with each other but not with {@link #append}.
+ */
+public final class ColumnarSink {
+    private static final int INITIAL_ROWS = 1024;
+    private static final int INITIAL_HEAP_BYTES = 64 * 1024;
+    private static final ArgsException.ErrorCode[] ERROR_CODES = ArgsException.ErrorCode.values();
+
+    private final ArgsSchema schema;
+    private final int[] widths;
+    private final ByteBuffer[] columns;
+    private final int presenceWidth;
+    private ByteBuffer presence;
+    private ByteBuffer errors;
+    private ByteBuffer heap;
+    private int rowCapacity;
+    private int rowCount;
+
+    public ColumnarSink(ArgsSchema schema) {
+        this(schema, INITIAL_ROWS);
+    }
+
+    public ColumnarSink(ArgsSchema schema, int expectedRows) {
+        this.schema = schema;
+        this.rowCapacity = Math.max(expectedRows, 1);
+        this.widths = new int[schema.size()];
+        this.columns = new ByteBuffer[schema.size()];
+        for (int i = 0; i < widths.length; i++) {
+            widths[i] = widthOf(schema.typeAt(i));
+            if (widths[i] > 0)
+                columns[i] = allocate((long) rowCapacity * widths[i]);
+        }
+        presenceWidth = schema.foundWords() * Long.BYTES;
+        presence = allocate((long) rowCapacity * presenceWidth);
+        errors = allocate(rowCapacity);
+        heap = allocate(INITIAL_HEAP_BYTES);
+        heap.limit(0);
+    }
+
+    private static int widthOf(ArgumentType type) {
+        switch (type) {
+            case BOOLEAN:
+                return 0;
+            case INTEGER:
+                return Integer.BYTES;
+            default:
+                return Long.BYTES;
+        }
+    }
+
+    private static ByteBuffer allocate(long bytes) {
+        if (bytes > Integer.MAX_VALUE)
+            throw new IllegalStateException("Column larger than 2GB: " + bytes + " bytes");
+        return ByteBuffer.allocateDirect((int) bytes).order(ByteOrder.nativeOrder());
+    }
+
+    public ArgsSchema getSchema() {
+        return schema;
+    }
+
+    public int rowCount() {
+        return rowCount;
+    }
+
+    public int append(ParseResult result) {
+        if (result.isOk())
+            return append(result.getArgs());
+        int row = nextRow();
+        for (int word = 0; word < presenceWidth; word += Long.BYTES)
+            presence.putLong(row * presenceWidth + word, 0);
+        for (int i = 0; i < columns.length; i++)
+            if (widths[i] == Integer.BYTES)
+                columns[i].putInt(row * Integer.BYTES, 0);
+            else if (widths[i] == Long.BYTES)
+                columns[i].putLong(row * Long.BYTES, 0);
+        errors.put(row, (byte) result.getErrorCode().ordinal());
+        return row;
+    }
+
+    public int append(Args args) {
+        if (args.schema() != schema)
+            throw new IllegalArgumentException("Args parsed against schema \"" + args.schema().getText()
+                + "\", not \"" + schema.getText() + "\"");
+        int row = nextRow();
+        ArgumentValues values = args.values();
+        for (int i = 0; i < columns.length; i++) {
+            int slot = schema.slotAt(i);
+            int position = row * widths[i];
+            switch (schema.typeAt(i)) {
+                case INTEGER:
+                    columns[i].putInt(position, values.ints[slot]);
+                    break;
+                case LONG:
+                    columns[i].putLong(position, values.longs[slot]);
+                    break;
+                case DOUBLE:
+                    columns[i].putDouble(position, values.doubles[slot]);
+                    break;
+                case STRING:
+                    putReference(i, row, appendString(values.getString(slot)));
+                    break;
+                case STRING_ARRAY:
+                    putReference(i, row, appendStrings(values.getStringArray(slot)));
+                    break;
+                default:
+                    break;
+            }
+        }
+        long[] found = args.argsFound();
+        for (int word = 0; word < found.length; word++)
+            presence.putLong(row * presenceWidth + word * Long.BYTES, found[word]);
+        errors.put(row, (byte) ArgsException.ErrorCode.OK.ordinal());
+        return row;
+    }
+
+    private int nextRow() {
+        if (rowCount == rowCapacity)
+            growRows();
+        return rowCount++;
+    }
+
+    private void growRows() {
+        int capacity = rowCapacity * 2;
+        if (capacity < 0)
+            throw new IllegalStateException("Too many rows");
+        for (int i = 0; i < columns.length; i++)
+            if (columns[i] != null)
+                columns[i] = copy(columns[i], (long) capacity * widths[i]);
+        presence = copy(presence, (long) capacity * presenceWidth);
+        errors = copy(errors, capacity);
+        rowCapacity = capacity;
+    }
+
+    private static ByteBuffer copy(ByteBuffer column, long bytes) {
+        ByteBuffer grown = allocate(bytes);
+        ByteBuffer source = column.duplicate();
+        source.clear();
+        grown.put(source).clear();
+        return grown;
+    }
+
+    private void putReference(int column, int row, long reference) {
+        columns[column].putLong(row * Long.BYTES, reference);
+    }
+
+    private long appendString(String value) {
+        int offset = heap.limit();
+        writeUtf8(value);
+        return reference(offset, heap.limit() - offset);
+    }
+
+    private long appendStrings(List<String> values) {
+        int offset = heap.limit();
+        writeInt(values.size());
+        for (int i = 0; i < values.size(); i++) {
+            int lengthAt = heap.limit();
+            writeInt(0);
+            writeUtf8(values.get(i));
+            heap.putInt(lengthAt, heap.limit() - lengthAt - Integer.BYTES);
+        }
+        return reference(offset, heap.limit() - offset);
+    }
+
+    private static long reference(int offset, int length) {
+        return (long) offset << 32 | length & 0xFFFFFFFFL;
+    }
+
+    private void writeInt(int value) {
+        int at = reserve(Integer.BYTES);
+        heap.putInt(at, value);
+    }
+
+    private void writeUtf8(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80)
+                heap.put(reserve(1), (byte) c);
+            else if (c < 0x800) {
+                int at = reserve(2);
+                heap.put(at, (byte) (0xC0 | c >> 6));
+                heap.put(at + 1, (byte) (0x80 | c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                int at = reserve(4);
+                heap.put(at, (byte) (0xF0 | codePoint >> 18));
+                heap.put(at + 1, (byte) (0x80 | codePoint >> 12 & 0x3F));
+                heap.put(at + 2, (byte) (0x80 | codePoint >> 6 & 0x3F));
+                heap.put(at + 3, (byte) (0x80 | codePoint & 0x3F));
+            } else {
+                int at = reserve(3);
+                heap.put(at, (byte) (0xE0 | c >> 12));
+                heap.put(at + 1, (byte) (0x80 | c >> 6 & 0x3F));
+                heap.put(at + 2, (byte) (0x80 | c & 0x3F));
+            }
+        }
+    }
+
+    private int reserve(int bytes) {
+        int at = heap.limit();
+        if (heap.capacity() - at < bytes) {
+            ByteBuffer grown = allocate(Math.max((long) heap.capacity() * 2, (long) at + bytes));
+            ByteBuffer used = heap.duplicate();
+            used.position(0);
+            grown.put(used).clear();
+            heap = grown;
+        }
+        heap.limit(at + bytes);
+        return at;
+    }
+
+    public ArgsException.ErrorCode getErrorCode(int row) {
+        return ERROR_CODES[errors.get(checkRow(row))];
+    }
+
+    public boolean has(int row, char arg) {
+        return has(row, schema.ordinalOf(arg));
+    }
+
+    public boolean has(int row, String name) {
+        return has(row, schema.ordinalOf(name));
+    }
+
+    private boolean has(int row, int ordinal) {
+        return ordinal != ArgsSchema.NO_ELEMENT
+            && (presence.getLong(checkRow(row) * presenceWidth + (ordinal >>> 6) * Long.BYTES) & 1L << ordinal) != 0;
+    }
+
+    public boolean getBoolean(int row, char arg) {
+        return getBoolean(row, schema.ordinalOf(arg));
+    }
+
+    public boolean getBoolean(int row, String name) {
+        return getBoolean(row, schema.ordinalOf(name));
+    }
+
+    private boolean getBoolean(int row, int ordinal) {
+        return column(ordinal, ArgumentType.BOOLEAN) != ArgsSchema.NO_ELEMENT && has(row, ordinal);
+    }
+
+    public int getInt(int row, char arg) {
+        return getInt(row, schema.ordinalOf(arg));
+    }
+
+    public int getInt(int row, String name) {
+        return getInt(row, schema.ordinalOf(name));
+    }
+
+    private int getInt(int row, int ordinal) {
+        int column = column(ordinal, ArgumentType.INTEGER);
+        return column == ArgsSchema.NO_ELEMENT ? 0 : columns[column].getInt(checkRow(row) * Integer.BYTES);
+    }
+
+    public long getLong(int row, char arg) {
+        return getLong(row, schema.ordinalOf(arg));
+    }
+
+    public long getLong(int row, String name) {
+        return getLong(row, schema.ordinalOf(name));
+    }
+
+    private long getLong(int row, int ordinal) {
+        int column = column(ordinal, ArgumentType.LONG);
+        return column == ArgsSchema.NO_ELEMENT ? 0 : columns[column].getLong(checkRow(row) * Long.BYTES);
+    }
+
+    public double getDouble(int row, char arg) {
+        return getDouble(row, schema.ordinalOf(arg));
+    }
+
+    public double getDouble(int row, String name) {
+        return getDouble(row, schema.ordinalOf(name));
+    }
+
+    private double getDouble(int row, int ordinal) {
+        int column = column(ordinal, ArgumentType.DOUBLE);
+        return column == ArgsSchema.NO_ELEMENT ? 0 : columns[column].getDouble(checkRow(row) * Long.BYTES);
+    }
+
+    public int getStringByteLength(int row, char arg) {
+        return getStringByteLength(row, schema.ordinalOf(arg));
+    }
+
+    public int getStringByteLength(int row, String name) {
+        return getStringByteLength(row, schema.ordinalOf(name));
+    }
+
+    private int getStringByteLength(int row, int ordinal) {
+        int column = column(ordinal, ArgumentType.STRING);
+        return column == ArgsSchema.NO_ELEMENT ? 0 : (int) columns[column].getLong(checkRow(row) * Long.BYTES);
+    }
+
+    public String getString(int row, char arg) {
+        return getString(row, schema.ordinalOf(arg));
+    }
+
+    public String getString(int row, String name) {
+        return getString(row, schema.ordinalOf(name));
+    }
+
+    private String getString(int row, int ordinal) {
+        int column = column(ordinal, ArgumentType.STRING);
+        if (column == ArgsSchema.NO_ELEMENT)
+            return "";
+        long reference = columns[column].getLong(checkRow(row) * Long.BYTES);
+        return readUtf8((int) (reference >>> 32), (int) reference);
+    }
+
+    public int getStringArrayLength(int row, char arg) {
+        return getStringArrayLength(row, schema.ordinalOf(arg));
+    }
+
+    public int getStringArrayLength(int row, String name) {
+        return getStringArrayLength(row, schema.ordinalOf(name));
+    }
+
+    private int getStringArrayLength(int row, int ordinal) {
+        int column = column(ordinal, ArgumentType.STRING_ARRAY);
+        if (column == ArgsSchema.NO_ELEMENT)
+            return 0;
+        long reference = columns[column].getLong(checkRow(row) * Long.BYTES);
+        return (int) reference == 0 ? 0 : heap.getInt((int) (reference >>> 32));
+    }
+
+    public String getStringArrayElement(int row, char arg, int index) {
+        return getStringArrayElement(row, schema.ordinalOf(arg), index);
+    }
+
+    public String getStringArrayElement(int row, String name, int index) {
+        return getStringArrayElement(row, schema.ordinalOf(name), index);
+    }
+
+    private String getStringArrayElement(int row, int ordinal, int index) {
+        int length = getStringArrayLength(row, ordinal);
+        if (index < 0 || index >= length)
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + length);
+        int at = (int) (columns[ordinal].getLong(row * Long.BYTES) >>> 32) + Integer.BYTES;
+        for (int i = 0; i < index; i++)
+            at += Integer.BYTES + heap.getInt(at);
+        return readUtf8(at + Integer.BYTES, heap.getInt(at));
+    }
+
+    private String readUtf8(int offset, int length) {
+        byte[] bytes = new byte[length];
+        ByteBuffer source = heap.duplicate();
+        source.position(offset);
+        source.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int column(int ordinal, ArgumentType type) {
+        return ordinal == ArgsSchema.NO_ELEMENT || schema.typeAt(ordinal) != type ? ArgsSchema.NO_ELEMENT : ordinal;
+    }
+
+    private int checkRow(int row) {
+        if (row < 0 || row >= rowCount)
+            throw new IndexOutOfBoundsException("Row: " + row + ", Rows: " + rowCount);
+        return row;
+    }
+}
@@ -0,0 +1,16 @@
+package com.objectmentor.utilities.args;
+
+/**
+ * The flag dispatch of one schema, specialized by {@link SchemaCompiler} into a
+ * hidden class. {@link #set} stores the value for one flag character and returns
+ * that element's ordinal, or -1 if the character is unknown or its value could
+ * not be stored.
+ */
+abstract class CompiledParser {
+    abstract int set(char argChar, ArgumentCursor cursor, ArgumentValues values, ParseResult result);
+
+    static int unexpected(ParseResult result, char argChar) {
+        result.fail(ArgsException.ErrorCode.UNEXPECTED_ARGUMENT, argChar, null);
+        return ArgsSchema.NO_ELEMENT;
+    }
+}
@@ -0,0 +1,219 @@
+package com.objectmentor.utilities.args;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Completes options for a compiled schema. Every spelling of every option
+ * ({@code -p}, {@code --port}) is kept sorted, and a prefix trie over them is
+ * stored in flat arrays: nodes are numbered breadth first, so the edges of a node
+ * are contiguous and edge {@code e} leads to node {@code e + 1}. Each node knows
+ * the range of sorted spellings below it, so a query walks one node per character
+ * and returns a view of that range without copying.
+ *
+ * <p>For shells, {@link #writeBashCompletion} and {@link #writeZshCompletion} write
+ * the same table as a script that completes without starting a JVM.
+ */
+public final class Completer {
+    private final ArgsSchema schema;
+    private final String[] spellings;
+    private final int[] ordinals;
+    private final List<String> spellingList;
+    private final int[] firstEdge;
+    private final char[] edgeLabels;
+    private final int[] rangeStart;
+    private final int[] rangeEnd;
+
+    Completer(ArgsSchema schema) {
+        this.schema = schema;
+        List<String> sorted = new ArrayList<String>();
+        Map<String, Integer> ordinalBySpelling = new HashMap<String, Integer>();
+        int characters = 0;
+        for (int i = 0; i < schema.size(); i++)
+            for (String spelling : spellingsOf(schema, i)) {
+                sorted.add(spelling);
+                ordinalBySpelling.put(spelling, i);
+                characters += spelling.length();
+            }
+        Collections.sort(sorted);
+        spellings = sorted.toArray(new String[0]);
+        ordinals = new int[spellings.length];
+        for (int i = 0; i < spellings.length; i++)
+            ordinals[i] = ordinalBySpelling.get(spellings[i]);
+        spellingList = Collections.unmodifiableList(Arrays.asList(spellings));
+
+        int maxNodes = characters + 1;
+        firstEdge = new int[maxNodes + 1];
+        edgeLabels = new char[maxNodes];
+        rangeStart = new int[maxNodes];
+        rangeEnd = new int[maxNodes];
+        int[] depths = new int[maxNodes];
+        rangeEnd[0] = spellings.length;
+        int nodeCount = 1;
+        for (int node = 0; node < nodeCount; node++) {
+            firstEdge[node] = nodeCount - 1;
+            int depth = depths[node];
+            int i = rangeStart[node];
+            while (i < rangeEnd[node] && spellings[i].length() == depth)
+                i++;
+            while (i < rangeEnd[node]) {
+                char label = spellings[i].charAt(depth);
+                int j = i;
+                while (j < rangeEnd[node] && spellings[j].charAt(depth) == label)
+                    j++;
+                edgeLabels[nodeCount - 1] = label;
+                rangeStart[nodeCount] = i;
+                rangeEnd[nodeCount] = j;
+                depths[nodeCount] = depth + 1;
+                nodeCount++;
+                i = j;
+            }
+        }
+        firstEdge[nodeCount] = nodeCount - 1;
+    }
+
+    private static List<String> spellingsOf(ArgsSchema schema, int ordinal) {
+        List<String> spellings = new ArrayList<String>(2);
+        if (schema.idAt(ordinal) != ArgsSchema.NO_ID)
+            spellings.add("-" + schema.idAt(ordinal));
+        if (schema.nameAt(ordinal) != null)
+            spellings.add("--" + schema.nameAt(ordinal));
+        return spellings;
+    }
+
+    public ArgsSchema getSchema() {
+        return schema;
+    }
+
+    public List<String> options() {
+        return spellingList;
+    }
+
+    public List<String> complete(CharSequence prefix) {
+        int node = nodeOf(prefix);
+        if (node == ArgsSchema.NO_ELEMENT)
+            return Collections.emptyList();
+        return spellingList.subList(rangeStart[node], rangeEnd[node]);
+    }
+
+    public List<String> complete(String[] argv) {
+        int pendingValues = 0;
+        for (int i = 0; i < argv.length - 1; i++) {
+            String word = argv[i];
+            if (pendingValues > 0)
+                pendingValues--;
+            else if (word.equals("--") || !word.startsWith("-"))
+                return Collections.emptyList();
+            else if (word.startsWith("--"))
+                pendingValues = word.indexOf('=') < 0 && takesValue(schema.ordinalOf(word, 2, word.length())) ? 1 : 0;
+            else if (word.startsWith("-"))
+                for (int c = 1; c < word.length(); c++)
+                    if (takesValue(schema.ordinalOf(word.charAt(c))))
+                        pendingValues++;
+        }
+        String word = argv.length == 0 ? "" : argv[argv.length - 1];
+        if (pendingValues > 0 || !word.startsWith("-"))
+            return Collections.emptyList();
+        return complete(word);
+    }
+
+    private boolean takesValue(int ordinal) {
+        return ordinal != ArgsSchema.NO_ELEMENT && schema.typeAt(ordinal) != ArgumentType.BOOLEAN;
+    }
+
+    public String resolve(CharSequence abbreviation) {
+        int node = nodeOf(abbreviation);
+        if (node == ArgsSchema.NO_ELEMENT)
+            return null;
+        String first = spellings[rangeStart[node]];
+        if (first.length() == abbreviation.length() || isOneOption(rangeStart[node], rangeEnd[node]))
+            return first;
+        return null;
+    }
+
+    private boolean isOneOption(int start, int end) {
+        for (int i = start + 1; i < end; i++)
+            if (ordinals[i] != ordinals[start])
+                return false;
+        return true;
+    }
+
+    private int nodeOf(CharSequence prefix) {
+        int node = 0;
+        for (int i = 0; i < prefix.length() && node != ArgsSchema.NO_ELEMENT; i++)
+            node = child(node, prefix.charAt(i));
+        return node;
+    }
+
+    private int child(int node, char label) {
+        int low = firstEdge[node];
+        int high = firstEdge[node + 1] - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (edgeLabels[middle] < label)
+                low = middle + 1;
+            else if (edgeLabels[middle] > label)
+                high = middle - 1;
+            else
+                return middle + 1;
+        }
+        return ArgsSchema.NO_ELEMENT;
+    }
+
+    public void writeBashCompletion(String command, Appendable out) throws IOException {
+        String function = "_" + functionName(command) + "_complete";
+        out.append("# bash completion for ").append(command).append('\n');
+        out.append(function).append("() {\n");
+        out.append("    local cur=${COMP_WORDS[COMP_CWORD]} prev=${COMP_WORDS[COMP_CWORD-1]}\n");
+        StringBuilder valueOptions = new StringBuilder();
+        for (int i = 0; i < spellings.length; i++)
+            if (takesValue(ordinals[i]))
+                valueOptions.append(valueOptions.length() == 0 ? "" : "|").append(spellings[i]);
+        if (valueOptions.length() > 0)
+            out.append("    case $prev in\n        ").append(valueOptions).append(") return ;;\n    esac\n");
+        out.append("    if [[ $cur == -* ]]; then\n");
+        out.append("        COMPREPLY=($(compgen -W '");
+        for (int i = 0; i < spellings.length; i++)
+            out.append(i == 0 ? "" : " ").append(spellings[i]);
+        out.append("' -- \"$cur\"))\n");
+        out.append("    fi\n");
+        out.append("}\n");
+        out.append("complete -o default -F ").append(function).append(' ').append(command).append('\n');
+    }
+
+    public void writeZshCompletion(String command, Appendable out) throws IOException {
+        functionName(command);
+        out.append("#compdef ").append(command).append('\n');
+        out.append("# zsh completion for ").append(command).append('\n');
+        out.append("_arguments -s");
+        for (int ordinal = 0; ordinal < schema.size(); ordinal++) {
+            List<String> aliases = spellingsOf(schema, ordinal);
+            boolean repeatable = schema.typeAt(ordinal) == ArgumentType.STRING_ARRAY;
+            for (String spelling : aliases) {
+                out.append(" \\\n    '");
+                if (repeatable)
+                    out.append('*');
+                else if (aliases.size() > 1)
+                    out.append('(').append(aliases.get(0)).append(' ').append(aliases.get(1)).append(')');
+                out.append(spelling);
+                if (takesValue(ordinal))
+                    out.append(spelling.startsWith("--") ? "=" : "").append(":value:_default");
+                out.append('\'');
+            }
+        }
+        out.append(" \\\n    '*:argument:_default'\n");
+    }
+
+    private static String functionName(String command) {
+        if (command.isEmpty())
+            throw new IllegalArgumentException("Command name is empty");
+        StringBuilder name = new StringBuilder();
+        for (int i = 0; i < command.length(); i++) {
+            char c = command.charAt(i);
+            if (c <= ' ' || c >= 0x7F || "'\"\\$`;&|<>()[]{}*?!#~".indexOf(c) >= 0)
+                throw new IllegalArgumentException("Command name cannot be used in a script: " + command);
+            name.append(Character.isLetterOrDigit(c) ? c : '_');
+        }
+        return name.toString();
+    }
+}
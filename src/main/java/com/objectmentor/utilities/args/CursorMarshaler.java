@@ -0,0 +1,12 @@
+package com.objectmentor.utilities.args;
+
+/**
+ * Reads the value of one argument from an {@link ArgumentCursor}. A marshaler
+ * reports a missing or malformed value by recording it on the {@link ParseResult}
+ * and returning {@code false}; it should not throw. Marshalers outside this
+ * package implement {@link ArgumentMarshaller} and are wrapped in an
+ * {@link IteratorMarshalerAdapter}; the built-in marshalers implement both.
+ */
+public interface CursorMarshaler {
+    public boolean set(ArgumentCursor cursor, ParseResult result);
+}
@@ -0,0 +1,156 @@
+package com.objectmentor.utilities.args;
+
+/**
+ * Parses numbers from any {@link CharSequence}, so a value can be read straight
+ * from a tokenizer's buffer. A String is only made for the error parameter or
+ * for the {@link Double#parseDouble} fallback.
+ */
+final class DecimalParser {
+    private static final int MAX_MANTISSA_DIGITS = 18;
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    private static final int MAX_EXPONENT_DIGITS_VALUE = 100000;
+    private static final double[] EXACT_POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private DecimalParser() {
+    }
+
+    static long parseLong(CharSequence token, long min, long max,
+                          ArgsException.ErrorCode invalidCode, ParseResult result) {
+        int length = token.length();
+        boolean negative = length > 0 && token.charAt(0) == '-';
+        int i = negative || length > 0 && token.charAt(0) == '+' ? 1 : 0;
+        if (i == length)
+            return fail(invalidCode, token, length, result);
+        long limit = negative ? min : -max;
+        long limitBeforeMultiply = limit / 10;
+        long value = 0;
+        for (; i < length; i++) {
+            int digit = token.charAt(i) - '0';
+            if (digit < 0 || digit > 9 || value < limitBeforeMultiply)
+                return fail(invalidCode, token, i, result);
+            value *= 10;
+            if (value < limit + digit)
+                return fail(invalidCode, token, i, result);
+            value -= digit;
+        }
+        return negative ? value : -value;
+    }
+
+    /**
+     * Parses {@code [+-]digits[.digits][(e|E)[+-]digits]}. When the significand fits in
+     * 53 bits and the power of ten is exactly representable, a single IEEE multiply or
+     * divide is correctly rounded; other inputs have already been validated here and
+     * are handed to {@link Double#parseDouble}, which therefore never throws.
+     */
+    static double parseDouble(CharSequence token, ArgsException.ErrorCode invalidCode, ParseResult result) {
+        int length = token.length();
+        int i = 0;
+        boolean negative = false;
+        if (length > 0 && (token.charAt(0) == '-' || token.charAt(0) == '+')) {
+            negative = token.charAt(0) == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int significantDigits = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean seenPoint = false;
+        boolean truncated = false;
+        for (; i < length; i++) {
+            char c = token.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits++;
+                if (significantDigits < MAX_MANTISSA_DIGITS) {
+                    mantissa = mantissa * 10 + (c - '0');
+                    if (mantissa != 0)
+                        significantDigits++;
+                    if (seenPoint)
+                        exponent--;
+                } else {
+                    truncated |= c != '0';
+                    if (!seenPoint)
+                        exponent++;
+                }
+            } else if (c == '.' && !seenPoint)
+                seenPoint = true;
+            else
+                break;
+        }
+        if (digits == 0)
+            return failDouble(invalidCode, token, i, result);
+        if (i < length && (token.charAt(i) == 'e' || token.charAt(i) == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < length && (token.charAt(i) == '-' || token.charAt(i) == '+')) {
+                negativeExponent = token.charAt(i) == '-';
+                i++;
+            }
+            int exponentStart = i;
+            int explicitExponent = 0;
+            for (; i < length && token.charAt(i) >= '0' && token.charAt(i) <= '9'; i++)
+                if (explicitExponent < MAX_EXPONENT_DIGITS_VALUE)
+                    explicitExponent = explicitExponent * 10 + (token.charAt(i) - '0');
+            if (i == exponentStart)
+                return failDouble(invalidCode, token, i, result);
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+        if (i != length)
+            return failDouble(invalidCode, token, i, result);
+
+        if (truncated || mantissa > MAX_EXACT_MANTISSA
+            || exponent < -(EXACT_POWERS_OF_TEN.length - 1) || exponent > EXACT_POWERS_OF_TEN.length - 1)
+            return Double.parseDouble(token.toString());
+        double value = exponent < 0
+            ? mantissa / EXACT_POWERS_OF_TEN[-exponent]
+            : mantissa * EXACT_POWERS_OF_TEN[exponent];
+        return negative ? -value : value;
+    }
+
+    /**
+     * Checks the syntax {@link #parseDouble} accepts without converting. Returns the
+     * offset of the first character that does not fit, or -1 if the token is valid.
+     */
+    static int invalidDoubleAt(CharSequence token) {
+        int length = token.length();
+        int i = length > 0 && (token.charAt(0) == '-' || token.charAt(0) == '+') ? 1 : 0;
+        int digits = 0;
+        boolean seenPoint = false;
+        for (; i < length; i++) {
+            char c = token.charAt(i);
+            if (c >= '0' && c <= '9')
+                digits++;
+            else if (c == '.' && !seenPoint)
+                seenPoint = true;
+            else
+                break;
+        }
+        if (digits == 0)
+            return i;
+        if (i < length && (token.charAt(i) == 'e' || token.charAt(i) == 'E')) {
+            i++;
+            if (i < length && (token.charAt(i) == '-' || token.charAt(i) == '+'))
+                i++;
+            int exponentStart = i;
+            while (i < length && token.charAt(i) >= '0' && token.charAt(i) <= '9')
+                i++;
+            if (i == exponentStart)
+                return i;
+        }
+        return i == length ? -1 : i;
+    }
+
+    private static double failDouble(ArgsException.ErrorCode invalidCode, CharSequence token, int offset,
+                                     ParseResult result) {
+        result.fail(invalidCode, token.toString(), offset);
+        return 0;
+    }
+
+    private static long fail(ArgsException.ErrorCode invalidCode, CharSequence token, int offset,
+                             ParseResult result) {
+        result.fail(invalidCode, token.toString(), offset);
+        return 0;
+    }
+}
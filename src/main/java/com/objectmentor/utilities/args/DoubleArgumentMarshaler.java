@@ -2,13 +2,45 @@ package com.objectmentor.utilities.args;
 
 import java.util.Iterator;
 
-public class DoubleArgumentMarshaler implements ArgumentMarshaller {
+import static com.objectmentor.utilities.args.ArgsException.ErrorCode.INVALID_DOUBLE;
+import static com.objectmentor.utilities.args.ArgsException.ErrorCode.MISSING_DOUBLE;
+
+public class DoubleArgumentMarshaler implements ArgumentMarshaller, CursorMarshaler {
+    private final ArgumentValues values;
+    private final int slot;
+
+    public DoubleArgumentMarshaler() {
+        this(new ArgumentValues(0, 0, 0, 1, 0), 0);
+    }
+
+    DoubleArgumentMarshaler(ArgumentValues values, int slot) {
+        this.values = values;
+        this.slot = slot;
+    }
 
     public void set(Iterator<String> currentArgument) throws ArgsException {
+        IteratorMarshalerAdapter.setOneValue(this, currentArgument);
+    }
+
+    public boolean set(ArgumentCursor cursor, ParseResult result) {
+        return set(cursor, values, slot, result);
+    }
 
+    static boolean set(ArgumentCursor cursor, ArgumentValues values, int slot, ParseResult result) {
+        if (!cursor.hasNext())
+            return result.fail(MISSING_DOUBLE, null);
+        double value = DecimalParser.parseDouble(cursor.peekChars(), INVALID_DOUBLE, result);
+        cursor.advance();
+        if (!result.isOk())
+            return false;
+        values.doubles[slot] = value;
+        return true;
     }
 
-    public static double getValue(ArgumentMarshaller argumentMarshaller) {
-        return 0;
+    public static double getValue(ArgumentMarshaller am) {
+        if (am != null && am instanceof DoubleArgumentMarshaler)
+            return ((DoubleArgumentMarshaler) am).values.doubles[((DoubleArgumentMarshaler) am).slot];
+        else
+            return 0;
     }
 }
@@ -0,0 +1,21 @@
+package com.objectmentor.utilities.args;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an interface whose {@link Option} methods describe a schema. At compile
+ * time the processor in {@code com.objectmentor.utilities.args.processor} writes
+ * a class named after the interface with a {@code Parser} suffix, in the same
+ * package. The class implements the interface and its static
+ * {@code parse(String[])} is a switch over the flag characters, and a bare
+ * {@code --} ends the options as it does for {@link Args}. Options have letter ids
+ * only, so {@code --name} is reported as an unexpected {@code -}; errors for
+ * letters use the same {@link ArgsException.ErrorCode}s as {@link Args}.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface GenerateParser {
+}
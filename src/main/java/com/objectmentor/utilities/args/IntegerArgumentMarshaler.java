@@ -1,30 +1,46 @@
 package com.objectmentor.utilities.args;
 
 import java.util.Iterator;
-import java.util.NoSuchElementException;
 
 import static com.objectmentor.utilities.args.ArgsException.ErrorCode.INVALID_INTEGER;
 import static com.objectmentor.utilities.args.ArgsException.ErrorCode.MISSING_INTEGER;
 
-public class IntegerArgumentMarshaler implements ArgumentMarshaller {
+public class IntegerArgumentMarshaler implements ArgumentMarshaller, CursorMarshaler {
+    private final ArgumentValues values;
+    private final int slot;
 
-    private int intValue = 0;
+    public IntegerArgumentMarshaler() {
+        this(new ArgumentValues(0, 1, 0, 0, 0), 0);
+    }
+
+    IntegerArgumentMarshaler(ArgumentValues values, int slot) {
+        this.values = values;
+        this.slot = slot;
+    }
 
     public void set(Iterator<String> currentArgument) throws ArgsException {
-        String parameter = null;
-        try {
-            parameter = currentArgument.next();
-            intValue = Integer.parseInt(parameter);
-        } catch (NoSuchElementException e) {
-            throw new ArgsException(MISSING_INTEGER);
-        } catch (NumberFormatException e) {
-            throw new ArgsException(INVALID_INTEGER, parameter);
-        }
+        IteratorMarshalerAdapter.setOneValue(this, currentArgument);
+    }
+
+    public boolean set(ArgumentCursor cursor, ParseResult result) {
+        return set(cursor, values, slot, result);
+    }
+
+    static boolean set(ArgumentCursor cursor, ArgumentValues values, int slot, ParseResult result) {
+        if (!cursor.hasNext())
+            return result.fail(MISSING_INTEGER, null);
+        int value = (int) DecimalParser.parseLong(cursor.peekChars(),
+            Integer.MIN_VALUE, Integer.MAX_VALUE, INVALID_INTEGER, result);
+        cursor.advance();
+        if (!result.isOk())
+            return false;
+        values.ints[slot] = value;
+        return true;
     }
 
     public static int getValue(ArgumentMarshaller am) {
         if (am != null && am instanceof IntegerArgumentMarshaler)
-            return ((IntegerArgumentMarshaler) am).intValue;
+            return ((IntegerArgumentMarshaler) am).values.ints[((IntegerArgumentMarshaler) am).slot];
         else
             return 0;
     }
@@ -0,0 +1,47 @@
+package com.objectmentor.utilities.args;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Lets an {@link ArgumentMarshaller} written against {@code Iterator<String>} be
+ * driven by an {@link ArgumentCursor}, as {@link Args#parse(ArgsSchema, String[], java.util.Map)}
+ * does for the marshalers it is given. {@link #setOneValue} goes the other way for
+ * the built-in marshalers.
+ */
+public final class IteratorMarshalerAdapter implements CursorMarshaler {
+    private final ArgumentMarshaller marshaler;
+
+    public IteratorMarshalerAdapter(ArgumentMarshaller marshaler) {
+        this.marshaler = marshaler;
+    }
+
+    public ArgumentMarshaller getMarshaler() {
+        return marshaler;
+    }
+
+    public boolean set(final ArgumentCursor cursor, ParseResult result) {
+        return marshaler.trySet(new Iterator<String>() {
+            public boolean hasNext() {
+                return cursor.hasNext();
+            }
+
+            public String next() {
+                if (!cursor.hasNext())
+                    throw new NoSuchElementException();
+                return cursor.next();
+            }
+
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        }, result);
+    }
+
+    static void setOneValue(CursorMarshaler marshaler, Iterator<String> currentArgument) throws ArgsException {
+        ParseResult result = new ParseResult();
+        String[] value = currentArgument.hasNext() ? new String[]{currentArgument.next()} : new String[0];
+        if (!marshaler.set(new ArgumentCursor(value), result))
+            throw result.toException();
+    }
+}
@@ -0,0 +1,222 @@
+package com.objectmentor.utilities.args;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static com.objectmentor.utilities.args.ArgsException.ErrorCode.*;
+
+/**
+ * Parses argv without converting numeric values. Parsing only checks that every
+ * option has its value, that integer values are made of digits and that doubles
+ * are well formed decimals; each value is converted on first access and the
+ * result kept, so options that are never read are never converted. Conversion may run on any thread; a value is published by
+ * setting its bit in {@code converted} after it is stored.
+ *
+ * <p>{@link #parseStrict} converts everything while parsing, so conversion errors
+ * are reported up front and the getters never fail.
+ */
+public final class LazyArgs {
+    private final ArgsSchema schema;
+    private final Args args;
+    private final String[] tokens;
+    private final AtomicLongArray converted;
+
+    private LazyArgs(ArgsSchema schema, Args args, String[] tokens) {
+        this.schema = schema;
+        this.args = args;
+        this.tokens = tokens;
+        this.converted = new AtomicLongArray(schema.foundWords());
+    }
+
+    public static LazyArgs parse(String schema, String[] args) throws ArgsException {
+        return parse(ArgsSchema.compile(schema), args);
+    }
+
+    public static LazyArgs parse(ArgsSchema schema, String[] args) throws ArgsException {
+        Args parsed = new Args(schema);
+        String[] tokens = new String[schema.size()];
+        CursorMarshaler[] marshalers = new CursorMarshaler[schema.size()];
+        for (int i = 0; i < marshalers.length; i++)
+            if (isNumeric(schema.typeAt(i)))
+                marshalers[i] = new TokenMarshaler(schema.typeAt(i), tokens, i);
+        ParseResult result = new ParseResult(parsed);
+        if (!parsed.parse(args, marshalers, result))
+            throw result.toException();
+        return new LazyArgs(schema, parsed, tokens);
+    }
+
+    public static LazyArgs parseStrict(String schema, String[] args) throws ArgsException {
+        return parseStrict(ArgsSchema.compile(schema), args);
+    }
+
+    public static LazyArgs parseStrict(ArgsSchema schema, String[] args) throws ArgsException {
+        LazyArgs lazy = parse(schema, args);
+        for (int i = 0; i < schema.size(); i++)
+            if (lazy.tokens[i] != null)
+                lazy.convert(i);
+        return lazy;
+    }
+
+    private static boolean isNumeric(ArgumentType type) {
+        return type == ArgumentType.INTEGER || type == ArgumentType.LONG || type == ArgumentType.DOUBLE;
+    }
+
+    public boolean has(char arg) {
+        return args.has(arg);
+    }
+
+    public boolean has(String name) {
+        return args.has(name);
+    }
+
+    public int nextArgument() {
+        return args.nextArgument();
+    }
+
+    public boolean getBoolean(char arg) {
+        return args.getBoolean(arg);
+    }
+
+    public boolean getBoolean(String name) {
+        return args.getBoolean(name);
+    }
+
+    public String getString(char arg) {
+        return args.getString(arg);
+    }
+
+    public String getString(String name) {
+        return args.getString(name);
+    }
+
+    public int getInt(char arg) throws ArgsException {
+        convert(schema.ordinalOf(arg), ArgumentType.INTEGER);
+        return args.getInt(arg);
+    }
+
+    public int getInt(String name) throws ArgsException {
+        convert(schema.ordinalOf(name), ArgumentType.INTEGER);
+        return args.getInt(name);
+    }
+
+    public long getLong(char arg) throws ArgsException {
+        convert(schema.ordinalOf(arg), ArgumentType.LONG);
+        return args.getLong(arg);
+    }
+
+    public long getLong(String name) throws ArgsException {
+        convert(schema.ordinalOf(name), ArgumentType.LONG);
+        return args.getLong(name);
+    }
+
+    public double getDouble(char arg) throws ArgsException {
+        convert(schema.ordinalOf(arg), ArgumentType.DOUBLE);
+        return args.getDouble(arg);
+    }
+
+    public double getDouble(String name) throws ArgsException {
+        convert(schema.ordinalOf(name), ArgumentType.DOUBLE);
+        return args.getDouble(name);
+    }
+
+    public String[] getStringArray(char arg) {
+        return args.getStringArray(arg);
+    }
+
+    public String[] getStringArray(String name) {
+        return args.getStringArray(name);
+    }
+
+    public List<String> getStringList(char arg) {
+        return args.getStringList(arg);
+    }
+
+    public List<String> getStringList(String name) {
+        return args.getStringList(name);
+    }
+
+    private void convert(int ordinal, ArgumentType type) throws ArgsException {
+        if (ordinal != ArgsSchema.NO_ELEMENT && schema.typeAt(ordinal) == type && tokens[ordinal] != null)
+            convert(ordinal);
+    }
+
+    private void convert(int ordinal) throws ArgsException {
+        int word = ordinal >>> 6;
+        long bit = 1L << ordinal;
+        if ((converted.get(word) & bit) != 0)
+            return;
+        ArgumentType type = schema.typeAt(ordinal);
+        ArgumentValues values = args.values();
+        int slot = schema.slotAt(ordinal);
+        ParseResult result = new ParseResult();
+        String token = tokens[ordinal];
+        if (type == ArgumentType.INTEGER) {
+            int value = (int) DecimalParser.parseLong(token, Integer.MIN_VALUE, Integer.MAX_VALUE, INVALID_INTEGER, result);
+            if (result.isOk())
+                values.ints[slot] = value;
+        } else if (type == ArgumentType.LONG) {
+            long value = DecimalParser.parseLong(token, Long.MIN_VALUE, Long.MAX_VALUE, INVALID_LONG, result);
+            if (result.isOk())
+                values.longs[slot] = value;
+        } else {
+            double value = DecimalParser.parseDouble(token, INVALID_DOUBLE, result);
+            if (result.isOk())
+                values.doubles[slot] = value;
+        }
+        if (!result.isOk()) {
+            result.setErrorArgumentId(schema.idAt(ordinal));
+            if (schema.idAt(ordinal) == ArgsSchema.NO_ID)
+                result.setErrorArgumentName(schema.nameAt(ordinal));
+            throw result.toException();
+        }
+        long current;
+        do
+            current = converted.get(word);
+        while (!converted.compareAndSet(word, current, current | bit));
+    }
+
+    private static final class TokenMarshaler implements CursorMarshaler {
+        private final ArgumentType type;
+        private final String[] tokens;
+        private final int ordinal;
+
+        TokenMarshaler(ArgumentType type, String[] tokens, int ordinal) {
+            this.type = type;
+            this.tokens = tokens;
+            this.ordinal = ordinal;
+        }
+
+        public boolean set(ArgumentCursor cursor, ParseResult result) {
+            if (!cursor.hasNext())
+                return result.fail(missingCode(), null);
+            String token = cursor.next();
+            int invalidAt = type == ArgumentType.DOUBLE ? DecimalParser.invalidDoubleAt(token) : firstNonDigit(token);
+            if (invalidAt >= 0)
+                return result.fail(invalidCode(), token, invalidAt);
+            tokens[ordinal] = token;
+            return true;
+        }
+
+        private ArgsException.ErrorCode invalidCode() {
+            if (type == ArgumentType.INTEGER)
+                return INVALID_INTEGER;
+            return type == ArgumentType.LONG ? INVALID_LONG : INVALID_DOUBLE;
+        }
+
+        private ArgsException.ErrorCode missingCode() {
+            if (type == ArgumentType.INTEGER)
+                return MISSING_INTEGER;
+            return type == ArgumentType.LONG ? MISSING_LONG : MISSING_DOUBLE;
+        }
+
+        private static int firstNonDigit(String token) {
+            int i = token.length() > 0 && (token.charAt(0) == '-' || token.charAt(0) == '+') ? 1 : 0;
+            if (i == token.length())
+                return i;
+            for (; i < token.length(); i++)
+                if (token.charAt(i) < '0' || token.charAt(i) > '9')
+                    return i;
+            return -1;
+        }
+    }
+}
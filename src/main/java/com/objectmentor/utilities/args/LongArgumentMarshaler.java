@@ -0,0 +1,47 @@
+package com.objectmentor.utilities.args;
+
+import java.util.Iterator;
+
+import static com.objectmentor.utilities.args.ArgsException.ErrorCode.INVALID_LONG;
+import static com.objectmentor.utilities.args.ArgsException.ErrorCode.MISSING_LONG;
+
+public class LongArgumentMarshaler implements ArgumentMarshaller, CursorMarshaler {
+    private final ArgumentValues values;
+    private final int slot;
+
+    public LongArgumentMarshaler() {
+        this(new ArgumentValues(0, 0, 1, 0, 0), 0);
+    }
+
+    LongArgumentMarshaler(ArgumentValues values, int slot) {
+        this.values = values;
+        this.slot = slot;
+    }
+
+    public void set(Iterator<String> currentArgument) throws ArgsException {
+        IteratorMarshalerAdapter.setOneValue(this, currentArgument);
+    }
+
+    public boolean set(ArgumentCursor cursor, ParseResult result) {
+        return set(cursor, values, slot, result);
+    }
+
+    static boolean set(ArgumentCursor cursor, ArgumentValues values, int slot, ParseResult result) {
+        if (!cursor.hasNext())
+            return result.fail(MISSING_LONG, null);
+        long value = DecimalParser.parseLong(cursor.peekChars(),
+            Long.MIN_VALUE, Long.MAX_VALUE, INVALID_LONG, result);
+        cursor.advance();
+        if (!result.isOk())
+            return false;
+        values.longs[slot] = value;
+        return true;
+    }
+
+    public static long getValue(ArgumentMarshaller am) {
+        if (am != null && am instanceof LongArgumentMarshaler)
+            return ((LongArgumentMarshaler) am).values.longs[((LongArgumentMarshaler) am).slot];
+        else
+            return 0;
+    }
+}
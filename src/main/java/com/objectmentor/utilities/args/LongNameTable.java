@@ -0,0 +1,146 @@
+package com.objectmentor.utilities.args;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A perfect hash from long option names to schema ordinals, built once when the
+ * schema is compiled. Names are hashed in one pass; the hash picks a bucket, and
+ * the bucket's seed, found at build time by hash-and-displace, sends every name
+ * in the bucket to its own slot. A lookup is therefore one hash, two array reads
+ * and one comparison whatever the number of names, and it works on a region of
+ * the argument so {@code --name=value} is never split into new strings.
+ */
+final class LongNameTable {
+    static final LongNameTable EMPTY = new LongNameTable(0, new int[1], new String[1], new int[1]);
+    private static final int NAMES_PER_BUCKET = 4;
+    private static final int MAX_SEED = 1 << 16;
+    private static final int MAX_SALT = 64;
+
+    private final int salt;
+    private final int[] seeds;
+    private final String[] names;
+    private final int[] ordinals;
+
+    private LongNameTable(int salt, int[] seeds, String[] names, int[] ordinals) {
+        this.salt = salt;
+        this.seeds = seeds;
+        this.names = names;
+        this.ordinals = ordinals;
+    }
+
+    static LongNameTable build(String[] namesByOrdinal) {
+        List<Integer> ordinals = new ArrayList<Integer>();
+        for (int i = 0; i < namesByOrdinal.length; i++)
+            if (namesByOrdinal[i] != null)
+                ordinals.add(i);
+        if (ordinals.isEmpty())
+            return EMPTY;
+        for (int salt = 0; salt < MAX_SALT; salt++) {
+            LongNameTable table = tryBuild(namesByOrdinal, ordinals, salt);
+            if (table != null)
+                return table;
+        }
+        throw new IllegalStateException("No perfect hash found for " + ordinals.size() + " long names");
+    }
+
+    private static LongNameTable tryBuild(final String[] namesByOrdinal, List<Integer> ordinals, int salt) {
+        int count = ordinals.size();
+        int bucketCount = (count + NAMES_PER_BUCKET - 1) / NAMES_PER_BUCKET;
+        int slotCount = count + count / 8 + 1;
+        List<List<Integer>> buckets = new ArrayList<List<Integer>>();
+        for (int i = 0; i < bucketCount; i++)
+            buckets.add(new ArrayList<Integer>());
+        int[] hashes = new int[namesByOrdinal.length];
+        for (int ordinal : ordinals) {
+            hashes[ordinal] = hash(namesByOrdinal[ordinal], 0, namesByOrdinal[ordinal].length(), salt);
+            buckets.get(index(hashes[ordinal], bucketCount)).add(ordinal);
+        }
+        List<List<Integer>> largestFirst = new ArrayList<List<Integer>>(buckets);
+        largestFirst.sort(new Comparator<List<Integer>>() {
+            public int compare(List<Integer> a, List<Integer> b) {
+                return b.size() - a.size();
+            }
+        });
+
+        int[] seeds = new int[bucketCount];
+        String[] names = new String[slotCount];
+        int[] slotOrdinals = new int[slotCount];
+        Arrays.fill(slotOrdinals, ArgsSchema.NO_ELEMENT);
+        int[] placed = new int[NAMES_PER_BUCKET * 8];
+        for (List<Integer> bucket : largestFirst) {
+            if (bucket.isEmpty())
+                break;
+            if (bucket.size() > placed.length)
+                placed = new int[bucket.size()];
+            int seed = placeBucket(bucket, hashes, names, slotCount, placed);
+            if (seed < 0)
+                return null;
+            seeds[index(hashes[bucket.get(0)], bucketCount)] = seed;
+            for (int i = 0; i < bucket.size(); i++) {
+                names[placed[i]] = namesByOrdinal[bucket.get(i)];
+                slotOrdinals[placed[i]] = bucket.get(i);
+            }
+        }
+        return new LongNameTable(salt, seeds, names, slotOrdinals);
+    }
+
+    private static int placeBucket(List<Integer> bucket, int[] hashes, String[] names, int slotCount, int[] placed) {
+        for (int seed = 1; seed < MAX_SEED; seed++) {
+            int i = 0;
+            for (; i < bucket.size(); i++) {
+                int slot = index(displace(hashes[bucket.get(i)], seed), slotCount);
+                if (names[slot] != null || contains(placed, i, slot))
+                    break;
+                placed[i] = slot;
+            }
+            if (i == bucket.size())
+                return seed;
+        }
+        return -1;
+    }
+
+    private static boolean contains(int[] values, int count, int value) {
+        for (int i = 0; i < count; i++)
+            if (values[i] == value)
+                return true;
+        return false;
+    }
+
+    int ordinalOf(CharSequence text, int start, int end) {
+        int hash = hash(text, start, end, salt);
+        int slot = index(displace(hash, seeds[index(hash, seeds.length)]), names.length);
+        String name = names[slot];
+        if (name == null || name.length() != end - start)
+            return ArgsSchema.NO_ELEMENT;
+        for (int i = 0; i < name.length(); i++)
+            if (name.charAt(i) != text.charAt(start + i))
+                return ArgsSchema.NO_ELEMENT;
+        return ordinals[slot];
+    }
+
+    private static int hash(CharSequence text, int start, int end, int salt) {
+        int hash = 0x811C9DC5 ^ salt * 0x9E3779B9;
+        for (int i = start; i < end; i++)
+            hash = (hash ^ text.charAt(i)) * 0x01000193;
+        return mix(hash);
+    }
+
+    private static int displace(int hash, int seed) {
+        return mix(hash + seed * 0x9E3779B9);
+    }
+
+    private static int mix(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85EBCA6B;
+        hash ^= hash >>> 13;
+        hash *= 0xC2B2AE35;
+        return hash ^ hash >>> 16;
+    }
+
+    private static int index(int hash, int size) {
+        return (hash & Integer.MAX_VALUE) % size;
+    }
+}
@@ -0,0 +1,110 @@
+package com.objectmentor.utilities.args;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Tokenizes a memory-mapped UTF-8 argument file in place. Characters are decoded
+ * straight from the mapping as they are scanned, so the file is never copied onto
+ * the heap.
+ */
+final class MappedArgumentTokenizer extends ArgumentTokenizer {
+    private static final char REPLACEMENT_CHARACTER = '\uFFFD';
+
+    private final ByteBuffer bytes;
+    private int position;
+    private int decodedChar = END;
+    private int decodedLength;
+    private int lowSurrogate;
+    private int pendingLowSurrogate = END;
+
+    MappedArgumentTokenizer(ByteBuffer bytes) {
+        this.bytes = bytes;
+    }
+
+    static MappedArgumentTokenizer map(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            if (channel.size() > Integer.MAX_VALUE)
+                throw new IOException("Argument file larger than 2GB: " + file);
+            return new MappedArgumentTokenizer(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } finally {
+            channel.close();
+        }
+    }
+
+    int peekChar() {
+        if (pendingLowSurrogate != END)
+            return pendingLowSurrogate;
+        if (decodedLength == 0)
+            decode();
+        return decodedChar;
+    }
+
+    void skipChar() {
+        if (pendingLowSurrogate != END) {
+            pendingLowSurrogate = END;
+            return;
+        }
+        if (decodedLength == 0)
+            decode();
+        position += decodedLength;
+        decodedLength = 0;
+        if (decodedChar != END && Character.isHighSurrogate((char) decodedChar))
+            pendingLowSurrogate = lowSurrogate;
+    }
+
+    int offset() {
+        return position;
+    }
+
+    private void decode() {
+        if (position >= bytes.limit()) {
+            decodedChar = END;
+            decodedLength = 0;
+            return;
+        }
+        int b = bytes.get(position) & 0xFF;
+        if (b < 0x80) {
+            setDecoded(b, 1);
+        } else if (b >= 0xC2 && b < 0xE0) {
+            decodeMultiByte(b & 0x1F, 2, 0x80);
+        } else if (b >= 0xE0 && b < 0xF0) {
+            decodeMultiByte(b & 0x0F, 3, 0x800);
+        } else if (b >= 0xF0 && b < 0xF5) {
+            decodeMultiByte(b & 0x07, 4, 0x10000);
+        } else
+            setDecoded(REPLACEMENT_CHARACTER, 1);
+    }
+
+    private void decodeMultiByte(int codePoint, int length, int minimum) {
+        if (position + length > bytes.limit()) {
+            setDecoded(REPLACEMENT_CHARACTER, 1);
+            return;
+        }
+        for (int i = 1; i < length; i++) {
+            int b = bytes.get(position + i) & 0xFF;
+            if ((b & 0xC0) != 0x80) {
+                setDecoded(REPLACEMENT_CHARACTER, 1);
+                return;
+            }
+            codePoint = codePoint << 6 | b & 0x3F;
+        }
+        if (codePoint < minimum || codePoint > Character.MAX_CODE_POINT
+            || Character.isSurrogate((char) codePoint) && codePoint < Character.MIN_SUPPLEMENTARY_CODE_POINT)
+            setDecoded(REPLACEMENT_CHARACTER, 1);
+        else if (codePoint >= Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+            lowSurrogate = Character.lowSurrogate(codePoint);
+            setDecoded(Character.highSurrogate(codePoint), length);
+        } else
+            setDecoded(codePoint, length);
+    }
+
+    private void setDecoded(int c, int length) {
+        decodedChar = c;
+        decodedLength = length;
+    }
+}
@@ -0,0 +1,17 @@
+package com.objectmentor.utilities.args;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares one schema element on a {@link GenerateParser} interface. The method's
+ * return type gives the element's type: {@code boolean}, {@code String},
+ * {@code int}, {@code long}, {@code double} or {@code String[]}.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.METHOD)
+public @interface Option {
+    char value();
+}
@@ -0,0 +1,96 @@
+package com.objectmentor.utilities.args;
+
+import static com.objectmentor.utilities.args.ArgsException.ErrorCode.OK;
+
+/**
+ * The outcome of {@link Args#parse(ArgsSchema, String[])}. A failed parse is
+ * described by its error code, argument id and parameter; no exception is
+ * created unless {@link #toException()} is called.
+ */
+public final class ParseResult {
+    private final Args args;
+    private ArgsException.ErrorCode errorCode = OK;
+    private char errorArgumentId = '\0';
+    private String errorArgumentName = null;
+    private String errorParameter = null;
+    private int errorOffset = ArgsException.NO_OFFSET;
+
+    ParseResult() {
+        this(null);
+    }
+
+    ParseResult(Args args) {
+        this.args = args;
+    }
+
+    void reset() {
+        errorCode = OK;
+        errorArgumentId = '\0';
+        errorArgumentName = null;
+        errorParameter = null;
+        errorOffset = ArgsException.NO_OFFSET;
+    }
+
+    boolean fail(ArgsException.ErrorCode errorCode, String errorParameter) {
+        this.errorCode = errorCode;
+        this.errorParameter = errorParameter;
+        return false;
+    }
+
+    boolean fail(ArgsException.ErrorCode errorCode, char errorArgumentId, String errorParameter) {
+        this.errorArgumentId = errorArgumentId;
+        return fail(errorCode, errorParameter);
+    }
+
+    boolean fail(ArgsException.ErrorCode errorCode, String errorParameter, int errorOffset) {
+        this.errorOffset = errorOffset;
+        return fail(errorCode, errorParameter);
+    }
+
+    void setErrorArgumentId(char errorArgumentId) {
+        this.errorArgumentId = errorArgumentId;
+    }
+
+    void setErrorArgumentName(String errorArgumentName) {
+        this.errorArgumentName = errorArgumentName;
+    }
+
+    public boolean isOk() {
+        return errorCode == OK;
+    }
+
+    public Args getArgs() {
+        return isOk() ? args : null;
+    }
+
+    public ArgsException.ErrorCode getErrorCode() {
+        return errorCode;
+    }
+
+    public char getErrorArgumentId() {
+        return errorArgumentId;
+    }
+
+    public String getErrorArgumentName() {
+        return errorArgumentName;
+    }
+
+    public String getErrorParameter() {
+        return errorParameter;
+    }
+
+    public int getErrorOffset() {
+        return errorOffset;
+    }
+
+    public String errorMessage() {
+        return ArgsException.errorMessage(errorCode, errorArgumentId, errorArgumentName, errorParameter, errorOffset);
+    }
+
+    public ArgsException toException() {
+        ArgsException e = ArgsException.stackless(errorCode, errorArgumentId, errorParameter);
+        e.setErrorArgumentName(errorArgumentName);
+        e.setErrorOffset(errorOffset);
+        return e;
+    }
+}
@@ -0,0 +1,164 @@
+package com.objectmentor.utilities.args;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An immutable copy of the values found by {@link Args}. All state is held in final
+ * fields that are fully written before construction completes, so an instance can
+ * be shared between threads without synchronization and read without locking.
+ */
+public final class ParsedArgs {
+    private final ArgsSchema schema;
+    private final long[] argsFound;
+    private final int nextArgument;
+    private final long[] booleans;
+    private final int[] ints;
+    private final long[] longs;
+    private final double[] doubles;
+    private final Object[] objects;
+
+    ParsedArgs(ArgsSchema schema, long[] argsFound, int nextArgument, ArgumentValues values) {
+        this.schema = schema;
+        this.argsFound = argsFound.clone();
+        this.nextArgument = nextArgument;
+        this.booleans = values.booleans.clone();
+        this.ints = values.ints.clone();
+        this.longs = values.longs.clone();
+        this.doubles = values.doubles.clone();
+        this.objects = values.objects.clone();
+        for (int i = 0; i < objects.length; i++)
+            if (objects[i] instanceof StringArrayValue)
+                objects[i] = Collections.unmodifiableList(
+                    Arrays.asList(((StringArrayValue) objects[i]).toStringArray()));
+    }
+
+    public ArgsSchema getSchema() {
+        return schema;
+    }
+
+    public boolean has(char arg) {
+        return found(schema.ordinalOf(arg));
+    }
+
+    public boolean has(String name) {
+        return found(schema.ordinalOf(name));
+    }
+
+    private boolean found(int ordinal) {
+        return ordinal != ArgsSchema.NO_ELEMENT && (argsFound[ordinal >>> 6] & 1L << ordinal) != 0;
+    }
+
+    public int nextArgument() {
+        return nextArgument;
+    }
+
+    public boolean getBoolean(char arg) {
+        int slot = schema.slotOf(arg, ArgumentType.BOOLEAN);
+        return slot != ArgsSchema.NO_ELEMENT && (booleans[slot >>> 6] & 1L << slot) != 0;
+    }
+
+    public String getString(char arg) {
+        int slot = schema.slotOf(arg, ArgumentType.STRING);
+        return slot == ArgsSchema.NO_ELEMENT || objects[slot] == null ? "" : (String) objects[slot];
+    }
+
+    public int getInt(char arg) {
+        int slot = schema.slotOf(arg, ArgumentType.INTEGER);
+        return slot == ArgsSchema.NO_ELEMENT ? 0 : ints[slot];
+    }
+
+    public long getLong(char arg) {
+        int slot = schema.slotOf(arg, ArgumentType.LONG);
+        return slot == ArgsSchema.NO_ELEMENT ? 0 : longs[slot];
+    }
+
+    public double getDouble(char arg) {
+        int slot = schema.slotOf(arg, ArgumentType.DOUBLE);
+        return slot == ArgsSchema.NO_ELEMENT ? 0 : doubles[slot];
+    }
+
+    public String[] getStringArray(char arg) {
+        return getStringList(arg).toArray(new String[0]);
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<String> getStringList(char arg) {
+        int slot = schema.slotOf(arg, ArgumentType.STRING_ARRAY);
+        return slot == ArgsSchema.NO_ELEMENT || objects[slot] == null
+            ? Collections.<String>emptyList() : (List<String>) objects[slot];
+    }
+
+    public boolean getBoolean(String name) {
+        int slot = schema.slotOf(name, ArgumentType.BOOLEAN);
+        return slot != ArgsSchema.NO_ELEMENT && (booleans[slot >>> 6] & 1L << slot) != 0;
+    }
+
+    public String getString(String name) {
+        int slot = schema.slotOf(name, ArgumentType.STRING);
+        return slot == ArgsSchema.NO_ELEMENT || objects[slot] == null ? "" : (String) objects[slot];
+    }
+
+    public int getInt(String name) {
+        int slot = schema.slotOf(name, ArgumentType.INTEGER);
+        return slot == ArgsSchema.NO_ELEMENT ? 0 : ints[slot];
+    }
+
+    public long getLong(String name) {
+        int slot = schema.slotOf(name, ArgumentType.LONG);
+        return slot == ArgsSchema.NO_ELEMENT ? 0 : longs[slot];
+    }
+
+    public double getDouble(String name) {
+        int slot = schema.slotOf(name, ArgumentType.DOUBLE);
+        return slot == ArgsSchema.NO_ELEMENT ? 0 : doubles[slot];
+    }
+
+    public String[] getStringArray(String name) {
+        return getStringList(name).toArray(new String[0]);
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<String> getStringList(String name) {
+        int slot = schema.slotOf(name, ArgumentType.STRING_ARRAY);
+        return slot == ArgsSchema.NO_ELEMENT || objects[slot] == null
+            ? Collections.<String>emptyList() : (List<String>) objects[slot];
+    }
+
+    public boolean has(ArgKey<?> key) {
+        return found(key.ordinalIn(schema));
+    }
+
+    public boolean getBoolean(ArgKey<Boolean> key) {
+        int slot = key.slotIn(schema);
+        return (booleans[slot >>> 6] & 1L << slot) != 0;
+    }
+
+    public String getString(ArgKey<String> key) {
+        String value = (String) objects[key.slotIn(schema)];
+        return value == null ? "" : value;
+    }
+
+    public int getInt(ArgKey<Integer> key) {
+        return ints[key.slotIn(schema)];
+    }
+
+    public long getLong(ArgKey<Long> key) {
+        return longs[key.slotIn(schema)];
+    }
+
+    public double getDouble(ArgKey<Double> key) {
+        return doubles[key.slotIn(schema)];
+    }
+
+    public String[] getStringArray(ArgKey<String[]> key) {
+        return getStringList(key).toArray(new String[0]);
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<String> getStringList(ArgKey<String[]> key) {
+        List<String> value = (List<String>) objects[key.slotIn(schema)];
+        return value == null ? Collections.<String>emptyList() : value;
+    }
+}
@@ -0,0 +1,41 @@
+package com.objectmentor.utilities.args;
+
+/**
+ * Value conversions called by {@link GenerateParser generated parsers}, so their
+ * numbers are parsed and rejected exactly as {@link Args} does it.
+ */
+public final class ParserSupport {
+    private ParserSupport() {
+    }
+
+    public static int parseInt(char argumentId, String token) throws ArgsException {
+        ParseResult result = new ParseResult();
+        int value = (int) DecimalParser.parseLong(token, Integer.MIN_VALUE, Integer.MAX_VALUE,
+            ArgsException.ErrorCode.INVALID_INTEGER, result);
+        if (!result.isOk())
+            throw failure(argumentId, result);
+        return value;
+    }
+
+    public static long parseLong(char argumentId, String token) throws ArgsException {
+        ParseResult result = new ParseResult();
+        long value = DecimalParser.parseLong(token, Long.MIN_VALUE, Long.MAX_VALUE,
+            ArgsException.ErrorCode.INVALID_LONG, result);
+        if (!result.isOk())
+            throw failure(argumentId, result);
+        return value;
+    }
+
+    public static double parseDouble(char argumentId, String token) throws ArgsException {
+        ParseResult result = new ParseResult();
+        double value = DecimalParser.parseDouble(token, ArgsException.ErrorCode.INVALID_DOUBLE, result);
+        if (!result.isOk())
+            throw failure(argumentId, result);
+        return value;
+    }
+
+    private static ArgsException failure(char argumentId, ParseResult result) {
+        result.setErrorArgumentId(argumentId);
+        return result.toException();
+    }
+}
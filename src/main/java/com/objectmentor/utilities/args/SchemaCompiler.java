@@ -0,0 +1,281 @@
+package com.objectmentor.utilities.args;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Turns a compiled schema into a {@link CompiledParser} subclass defined as a hidden
+ * class. Its {@code set} method is a {@code tableswitch} on the flag character
+ * whose cases call the element's static marshaler method with the slot and
+ * ordinal as constants:
+ *
+ * <pre>
+ *   case 'p': return (ordinal + 1) * IntegerArgumentMarshaler.set(cursor, values, slot, result) - 1;
+ * </pre>
+ *
+ * Only elements with a letter get a case; long names are resolved by {@link Args}.
+ *
+ * The class file is version 49, which needs no stack map frames. A hidden class is
+ * only weakly tied to its loader, so it is unloaded once its schema is no longer
+ * reachable.
+ */
+final class SchemaCompiler {
+    private static final String PACKAGE = "com/objectmentor/utilities/args/";
+    private static final String SUPER_CLASS = PACKAGE + "CompiledParser";
+    private static final String SET_DESCRIPTOR = "(CL" + PACKAGE + "ArgumentCursor;L" + PACKAGE + "ArgumentValues;L"
+        + PACKAGE + "ParseResult;)I";
+    private static final String MARSHALER_DESCRIPTOR = "(L" + PACKAGE + "ArgumentCursor;L" + PACKAGE
+        + "ArgumentValues;IL" + PACKAGE + "ParseResult;)Z";
+    private static final String UNEXPECTED_DESCRIPTOR = "(L" + PACKAGE + "ParseResult;C)I";
+    private static final int CLASS_FILE_VERSION = 49;
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_FINAL = 0x0010;
+    private static final int ACC_SUPER = 0x0020;
+
+    private static final int ICONST_M1 = 0x02;
+    private static final int SIPUSH = 0x11;
+    private static final int LDC_W = 0x13;
+    private static final int ALOAD = 0x19;
+    private static final int ILOAD_1 = 0x1B;
+    private static final int ALOAD_0 = 0x2A;
+    private static final int ALOAD_2 = 0x2C;
+    private static final int ALOAD_3 = 0x2D;
+    private static final int IADD = 0x60;
+    private static final int IMUL = 0x68;
+    private static final int TABLESWITCH = 0xAA;
+    private static final int IRETURN = 0xAC;
+    private static final int RETURN = 0xB1;
+    private static final int INVOKESPECIAL = 0xB7;
+    private static final int INVOKESTATIC = 0xB8;
+
+    private final ArgsSchema schema;
+    private final ConstantPool constants = new ConstantPool();
+
+    private SchemaCompiler(ArgsSchema schema) {
+        this.schema = schema;
+    }
+
+    static CompiledParser compile(ArgsSchema schema) {
+        try {
+            byte[] bytes = new SchemaCompiler(schema).classFile();
+            MethodHandles.Lookup lookup = MethodHandles.lookup().defineHiddenClass(bytes, true);
+            return (CompiledParser) lookup.findConstructor(lookup.lookupClass(), MethodType.methodType(void.class))
+                .invoke();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Could not specialize schema \"" + schema.getText() + "\"", e);
+        }
+    }
+
+    byte[] classFile() throws IOException {
+        int thisClass = constants.classRef(SUPER_CLASS + "$Specialized");
+        int superClass = constants.classRef(SUPER_CLASS);
+        int superInit = constants.methodRef(SUPER_CLASS, "<init>", "()V");
+        byte[] setCode = setCode();
+        int initName = constants.utf8("<init>");
+        int initDescriptor = constants.utf8("()V");
+        int setName = constants.utf8("set");
+        int setDescriptor = constants.utf8(SET_DESCRIPTOR);
+        int codeName = constants.utf8("Code");
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0xCAFEBABE);
+        out.writeShort(0);
+        out.writeShort(CLASS_FILE_VERSION);
+        constants.writeTo(out);
+        out.writeShort(ACC_FINAL | ACC_SUPER);
+        out.writeShort(thisClass);
+        out.writeShort(superClass);
+        out.writeShort(0);
+        out.writeShort(0);
+        out.writeShort(2);
+        writeMethod(out, ACC_PUBLIC, initName, initDescriptor, codeName, 1, 1,
+            new byte[]{ALOAD_0, (byte) INVOKESPECIAL, (byte) (superInit >> 8), (byte) superInit, (byte) RETURN});
+        writeMethod(out, 0, setName, setDescriptor, codeName, 6, 5, setCode);
+        out.writeShort(0);
+        return bytes.toByteArray();
+    }
+
+    private static void writeMethod(DataOutputStream out, int access, int name, int descriptor, int codeName,
+                                    int maxStack, int maxLocals, byte[] code) throws IOException {
+        out.writeShort(access);
+        out.writeShort(name);
+        out.writeShort(descriptor);
+        out.writeShort(1);
+        out.writeShort(codeName);
+        out.writeInt(12 + code.length);
+        out.writeShort(maxStack);
+        out.writeShort(maxLocals);
+        out.writeInt(code.length);
+        out.write(code);
+        out.writeShort(0);
+        out.writeShort(0);
+    }
+
+    private byte[] setCode() throws IOException {
+        int low = Character.MAX_VALUE;
+        int high = 0;
+        for (int i = 0; i < schema.size(); i++) {
+            if (schema.idAt(i) == ArgsSchema.NO_ID)
+                continue;
+            low = Math.min(low, schema.idAt(i));
+            high = Math.max(high, schema.idAt(i));
+        }
+        if (low > high)
+            low = high = 0;
+        ByteArrayOutputStream caseBytes = new ByteArrayOutputStream();
+        DataOutputStream cases = new DataOutputStream(caseBytes);
+        int[] caseOffset = new int[schema.size()];
+        for (int ordinal = 0; ordinal < schema.size(); ordinal++)
+            if (schema.idAt(ordinal) != ArgsSchema.NO_ID) {
+                caseOffset[ordinal] = cases.size();
+                writeCase(cases, ordinal);
+            }
+        int switchAt = 1;
+        int padding = 3 - switchAt % 4;
+        int firstCase = switchAt + 1 + padding + 4 * (3 + high - low + 1);
+        int defaultCase = firstCase + cases.size();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream code = new DataOutputStream(bytes);
+        code.writeByte(ILOAD_1);
+        code.writeByte(TABLESWITCH);
+        for (int i = 0; i < padding; i++)
+            code.writeByte(0);
+        code.writeInt(defaultCase - switchAt);
+        code.writeInt(low);
+        code.writeInt(high);
+        for (int c = low; c <= high; c++) {
+            int ordinal = schema.ordinalOf((char) c);
+            code.writeInt((ordinal == ArgsSchema.NO_ELEMENT ? defaultCase : firstCase + caseOffset[ordinal]) - switchAt);
+        }
+        caseBytes.writeTo(code);
+        int unexpected = constants.methodRef(SUPER_CLASS, "unexpected", UNEXPECTED_DESCRIPTOR);
+        code.writeByte(ALOAD);
+        code.writeByte(4);
+        code.writeByte(ILOAD_1);
+        code.writeByte(INVOKESTATIC);
+        code.writeShort(unexpected);
+        code.writeByte(IRETURN);
+        return bytes.toByteArray();
+    }
+
+    private void writeCase(DataOutputStream code, int ordinal) throws IOException {
+        int marshaler = constants.methodRef(marshalerClass(schema.typeAt(ordinal)), "set", MARSHALER_DESCRIPTOR);
+        writeInt(code, ordinal + 1);
+        code.writeByte(ALOAD_2);
+        code.writeByte(ALOAD_3);
+        writeInt(code, schema.slotAt(ordinal));
+        code.writeByte(ALOAD);
+        code.writeByte(4);
+        code.writeByte(INVOKESTATIC);
+        code.writeShort(marshaler);
+        code.writeByte(IMUL);
+        code.writeByte(ICONST_M1);
+        code.writeByte(IADD);
+        code.writeByte(IRETURN);
+    }
+
+    private void writeInt(DataOutputStream code, int value) throws IOException {
+        if (value <= Short.MAX_VALUE) {
+            code.writeByte(SIPUSH);
+            code.writeShort(value);
+        } else {
+            code.writeByte(LDC_W);
+            code.writeShort(constants.intConstant(value));
+        }
+    }
+
+    private static String marshalerClass(ArgumentType type) {
+        switch (type) {
+            case BOOLEAN:
+                return PACKAGE + "BooleanArgumentMarshaler";
+            case STRING:
+                return PACKAGE + "StringArgumentMarshaler";
+            case INTEGER:
+                return PACKAGE + "IntegerArgumentMarshaler";
+            case LONG:
+                return PACKAGE + "LongArgumentMarshaler";
+            case DOUBLE:
+                return PACKAGE + "DoubleArgumentMarshaler";
+            default:
+                return PACKAGE + "StringArrayArgumentMarshaler";
+        }
+    }
+
+    private static final class ConstantPool {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(bytes);
+        private final Map<String, Integer> indices = new HashMap<String, Integer>();
+        private int next = 1;
+
+        int utf8(String value) throws IOException {
+            Integer index = indices.get("U" + value);
+            if (index != null)
+                return index;
+            out.writeByte(1);
+            out.writeUTF(value);
+            return add("U" + value, 1);
+        }
+
+        int classRef(String internalName) throws IOException {
+            Integer index = indices.get("C" + internalName);
+            if (index != null)
+                return index;
+            int name = utf8(internalName);
+            out.writeByte(7);
+            out.writeShort(name);
+            return add("C" + internalName, 1);
+        }
+
+        int methodRef(String owner, String name, String descriptor) throws IOException {
+            String key = "M" + owner + "." + name + descriptor;
+            Integer index = indices.get(key);
+            if (index != null)
+                return index;
+            int ownerClass = classRef(owner);
+            int nameIndex = utf8(name);
+            int descriptorIndex = utf8(descriptor);
+            Integer nameAndType = indices.get("N" + name + descriptor);
+            if (nameAndType == null) {
+                out.writeByte(12);
+                out.writeShort(nameIndex);
+                out.writeShort(descriptorIndex);
+                nameAndType = add("N" + name + descriptor, 1);
+            }
+            out.writeByte(10);
+            out.writeShort(ownerClass);
+            out.writeShort(nameAndType);
+            return add(key, 1);
+        }
+
+        int intConstant(int value) throws IOException {
+            Integer index = indices.get("I" + value);
+            if (index != null)
+                return index;
+            out.writeByte(3);
+            out.writeInt(value);
+            return add("I" + value, 1);
+        }
+
+        private int add(String key, int width) {
+            int index = next;
+            indices.put(key, index);
+            next += width;
+            return index;
+        }
+
+        void writeTo(DataOutputStream classFile) throws IOException {
+            out.flush();
+            classFile.writeShort(next);
+            bytes.writeTo(classFile);
+        }
+    }
+}
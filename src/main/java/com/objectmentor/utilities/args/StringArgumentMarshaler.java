@@ -1,25 +1,41 @@
 package com.objectmentor.utilities.args;
 
 import java.util.Iterator;
-import java.util.NoSuchElementException;
 
 import static com.objectmentor.utilities.args.ArgsException.ErrorCode.MISSING_STRING;
 
-public class StringArgumentMarshaler implements ArgumentMarshaller {
+public class StringArgumentMarshaler implements ArgumentMarshaller, CursorMarshaler {
+    private final ArgumentValues values;
+    private final int slot;
 
-    private String stringValue = "";
+    public StringArgumentMarshaler() {
+        this(new ArgumentValues(0, 0, 0, 0, 1), 0);
+    }
+
+    StringArgumentMarshaler(ArgumentValues values, int slot) {
+        this.values = values;
+        this.slot = slot;
+    }
 
     public void set(Iterator<String> currentArgument) throws ArgsException {
-        try {
-            stringValue = currentArgument.next();
-        } catch (NoSuchElementException e) {
-            throw new ArgsException(MISSING_STRING);
-        }
+        IteratorMarshalerAdapter.setOneValue(this, currentArgument);
+    }
+
+    public boolean set(ArgumentCursor cursor, ParseResult result) {
+        return set(cursor, values, slot, result);
+    }
+
+    static boolean set(ArgumentCursor cursor, ArgumentValues values, int slot, ParseResult result) {
+        if (!cursor.hasNext())
+            return result.fail(MISSING_STRING, null);
+        StringPool pool = StringPool.shared();
+        values.objects[slot] = pool == null ? cursor.next() : pool.deduplicate(cursor.next());
+        return true;
     }
 
     public static String getValue(ArgumentMarshaller am) {
         if (am != null && am instanceof StringArgumentMarshaler)
-            return ((StringArgumentMarshaler) am).stringValue;
+            return ((StringArgumentMarshaler) am).values.getString(((StringArgumentMarshaler) am).slot);
         else
             return "";
     }
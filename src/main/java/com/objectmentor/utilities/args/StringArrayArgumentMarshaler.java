@@ -1,13 +1,54 @@
 package com.objectmentor.utilities.args;
 
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 
-public class StringArrayArgumentMarshaler implements ArgumentMarshaller {
+import static com.objectmentor.utilities.args.ArgsException.ErrorCode.MISSING_STRING;
+
+public class StringArrayArgumentMarshaler implements ArgumentMarshaller, CursorMarshaler {
+    private final ArgumentValues values;
+    private final int slot;
+
+    public StringArrayArgumentMarshaler() {
+        this(new ArgumentValues(0, 0, 0, 0, 1), 0);
+    }
+
+    StringArrayArgumentMarshaler(ArgumentValues values, int slot) {
+        this.values = values;
+        this.slot = slot;
+    }
 
     public void set(Iterator<String> currentArgument) throws ArgsException {
+        IteratorMarshalerAdapter.setOneValue(this, currentArgument);
+    }
+
+    public boolean set(ArgumentCursor cursor, ParseResult result) {
+        return set(cursor, values, slot, result);
+    }
+
+    static boolean set(ArgumentCursor cursor, ArgumentValues values, int slot, ParseResult result) {
+        if (!cursor.hasNext())
+            return result.fail(MISSING_STRING, null);
+        StringArrayValue value = (StringArrayValue) values.objects[slot];
+        if (value == null)
+            values.objects[slot] = value = new StringArrayValue();
+        StringPool pool = StringPool.shared();
+        if (pool == null)
+            value.add(cursor);
+        else
+            value.addOwned(pool.deduplicate(cursor.next()));
+        return true;
+    }
+
+    public static String[] getValue(ArgumentMarshaller am) {
+        return getList(am).toArray(new String[0]);
     }
 
-    public static String[] getValue(ArgumentMarshaller argumentMarshaller) {
-        return new String[0];
+    public static List<String> getList(ArgumentMarshaller am) {
+        if (am != null && am instanceof StringArrayArgumentMarshaler)
+            return ((StringArrayArgumentMarshaler) am).values.getStringArray(((StringArrayArgumentMarshaler) am).slot);
+        else
+            return Collections.emptyList();
     }
 }
@@ -0,0 +1,72 @@
+package com.objectmentor.utilities.args;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * The values of a repeated option, held as indices into the argument array they
+ * came from. The list is a read-only view; no String[] is built until asked for.
+ */
+final class StringArrayValue extends AbstractList<String> implements RandomAccess {
+    static final StringArrayValue EMPTY = new StringArrayValue();
+    private static final int INITIAL_CAPACITY = 4;
+
+    private String[] source;
+    private boolean ownsSource;
+    private int[] indices = new int[INITIAL_CAPACITY];
+    private int count;
+
+    void reset() {
+        if (ownsSource)
+            Arrays.fill(source, 0, count, null);
+        else
+            source = null;
+        count = 0;
+    }
+
+    void add(ArgumentCursor cursor) {
+        String[] arguments = cursor.arguments();
+        if (arguments != null && !ownsSource && (source == null || source == arguments)) {
+            source = arguments;
+            addIndex(cursor.index());
+            cursor.advance();
+        } else
+            addOwned(cursor.next());
+    }
+
+    void addOwned(String value) {
+        if (!ownsSource) {
+            source = Arrays.copyOf(toStringArray(), Math.max(INITIAL_CAPACITY, count * 2));
+            for (int i = 0; i < count; i++)
+                indices[i] = i;
+            ownsSource = true;
+        } else if (count == source.length)
+            source = Arrays.copyOf(source, count * 2);
+        source[count] = value;
+        addIndex(count);
+    }
+
+    private void addIndex(int index) {
+        if (count == indices.length)
+            indices = Arrays.copyOf(indices, count * 2);
+        indices[count++] = index;
+    }
+
+    String[] toStringArray() {
+        String[] array = new String[count];
+        for (int i = 0; i < count; i++)
+            array[i] = source[indices[i]];
+        return array;
+    }
+
+    public String get(int index) {
+        if (index < 0 || index >= count)
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + count);
+        return source[indices[index]];
+    }
+
+    public int size() {
+        return count;
+    }
+}
@@ -0,0 +1,92 @@
+package com.objectmentor.utilities.args;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded, lossy pool that lets equal string values share one instance. The
+ * pool is a fixed-size table indexed by hash code: a colliding value simply
+ * replaces the entry, so memory stays bounded, nothing is held forever and no
+ * lock is taken. Unlike {@link String#intern()} nothing is added to the JVM's
+ * string table.
+ *
+ * <p>Once {@link #enable(int)} has been called, {@link StringArgumentMarshaler}
+ * and {@link StringArrayArgumentMarshaler} store pooled values.
+ */
+public final class StringPool {
+    private static final int STRING_OVERHEAD_BYTES = 40;
+    private static volatile StringPool shared;
+
+    private final AtomicReferenceArray<String> table;
+    private final int mask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder bytesSaved = new LongAdder();
+
+    public StringPool(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30)
+            throw new IllegalArgumentException("capacity: " + capacity);
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity)
+            size <<= 1;
+        table = new AtomicReferenceArray<String>(size);
+        mask = size - 1;
+    }
+
+    public static synchronized StringPool enable(int capacity) {
+        shared = new StringPool(capacity);
+        return shared;
+    }
+
+    public static synchronized void disable() {
+        shared = null;
+    }
+
+    static StringPool shared() {
+        return shared;
+    }
+
+    public String deduplicate(String value) {
+        int hash = value.hashCode();
+        int index = (hash ^ hash >>> 16) & mask;
+        String pooled = table.get(index);
+        if (pooled != null && pooled.equals(value)) {
+            hits.increment();
+            if (pooled != value)
+                bytesSaved.add(estimatedSize(value));
+            return pooled;
+        }
+        misses.increment();
+        table.lazySet(index, value);
+        return value;
+    }
+
+    private static long estimatedSize(String value) {
+        for (int i = 0; i < value.length(); i++)
+            if (value.charAt(i) > 0xFF)
+                return STRING_OVERHEAD_BYTES + 2L * value.length();
+        return STRING_OVERHEAD_BYTES + value.length();
+    }
+
+    public int capacity() {
+        return table.length();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public double getHitRate() {
+        long hits = getHits();
+        long lookups = hits + getMisses();
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    public long getBytesSaved() {
+        return bytesSaved.sum();
+    }
+}
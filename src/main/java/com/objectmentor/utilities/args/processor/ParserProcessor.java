@@ -0,0 +1,251 @@
+package com.objectmentor.utilities.args.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+
+/**
+ * Writes a parser class for every interface annotated with
+ * {@code @GenerateParser}. The generated class holds one field per option and
+ * parses with a single switch on the flag character, so nothing is looked up or
+ * reflected on at run time.
+ */
+@SupportedAnnotationTypes(ParserProcessor.GENERATE_PARSER)
+public class ParserProcessor extends AbstractProcessor {
+    static final String GENERATE_PARSER = "com.objectmentor.utilities.args.GenerateParser";
+    private static final String OPTION = "com.objectmentor.utilities.args.Option";
+    private static final int MAX_OPTIONS = 52;
+    private static final Set<String> RESERVED_NAMES =
+        new HashSet<String>(Arrays.asList("SCHEMA", "argsFound", "nextArgument", "has", "parse"));
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment round) {
+        TypeElement generateParser = processingEnv.getElementUtils().getTypeElement(GENERATE_PARSER);
+        if (generateParser == null)
+            return false;
+        for (Element element : round.getElementsAnnotatedWith(generateParser)) {
+            if (element.getKind() != ElementKind.INTERFACE) {
+                error(element, "@GenerateParser applies to interfaces only");
+                continue;
+            }
+            TypeElement type = (TypeElement) element;
+            List<OptionMethod> options = options(type);
+            if (options != null)
+                write(type, options);
+        }
+        return true;
+    }
+
+    private List<OptionMethod> options(TypeElement type) {
+        List<OptionMethod> options = new ArrayList<OptionMethod>();
+        Set<Character> ids = new HashSet<Character>();
+        boolean valid = true;
+        for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type))) {
+            if (!method.getModifiers().contains(Modifier.ABSTRACT))
+                continue;
+            Character id = optionId(method);
+            OptionKind kind = OptionKind.of(method.getReturnType().toString());
+            String name = method.getSimpleName().toString();
+            if (id == null) {
+                error(method, "Methods of a @GenerateParser interface need @Option");
+                valid = false;
+            } else if (!method.getParameters().isEmpty() || kind == null) {
+                error(method, "@Option methods take no parameters and return boolean, String, int, long, "
+                    + "double or String[]");
+                valid = false;
+            } else if (!isAsciiLetter(id)) {
+                error(method, "Option id '" + id + "' is not an ASCII letter");
+                valid = false;
+            } else if (!ids.add(id)) {
+                error(method, "Option id '" + id + "' is declared twice");
+                valid = false;
+            } else if (RESERVED_NAMES.contains(name)) {
+                error(method, "The generated parser already defines " + name);
+                valid = false;
+            } else
+                options.add(new OptionMethod(name, id, kind));
+        }
+        if (options.size() > MAX_OPTIONS) {
+            error(type, "A schema holds at most " + MAX_OPTIONS + " options");
+            valid = false;
+        }
+        return valid ? options : null;
+    }
+
+    private Character optionId(ExecutableElement method) {
+        for (AnnotationMirror annotation : method.getAnnotationMirrors()) {
+            if (!((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().contentEquals(OPTION))
+                continue;
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> value
+                : annotation.getElementValues().entrySet())
+                if (value.getKey().getSimpleName().contentEquals("value"))
+                    return (Character) value.getValue().getValue();
+        }
+        return null;
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z';
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    private void write(TypeElement type, List<OptionMethod> options) {
+        String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        String className = type.getSimpleName() + "Parser";
+        String qualifiedName = packageName.isEmpty() ? className : packageName + "." + className;
+        try (Writer writer = processingEnv.getFiler().createSourceFile(qualifiedName, type).openWriter()) {
+            writer.write(source(packageName, className, type.getQualifiedName().toString(), options));
+        } catch (IOException e) {
+            error(type, "Could not write " + qualifiedName + ": " + e.getMessage());
+        }
+    }
+
+    static String source(String packageName, String className, String interfaceName, List<OptionMethod> options) {
+        StringBuilder out = new StringBuilder();
+        if (!packageName.isEmpty())
+            out.append("package ").append(packageName).append(";\n\n");
+        out.append("import com.objectmentor.utilities.args.ArgsException;\n")
+            .append("import com.objectmentor.utilities.args.ParserSupport;\n\n")
+            .append("import java.util.ArrayList;\n")
+            .append("import java.util.List;\n\n")
+            .append("import static com.objectmentor.utilities.args.ArgsException.ErrorCode.*;\n\n")
+            .append("public final class ").append(className).append(" implements ").append(interfaceName).append(" {\n")
+            .append("    public static final String SCHEMA = \"").append(schema(options)).append("\";\n\n")
+            .append("    private long argsFound;\n")
+            .append("    private int nextArgument;\n");
+        for (OptionMethod option : options)
+            out.append("    private ").append(option.kind.field).append(' ').append(option.name)
+                .append(option.kind.initializer).append(";\n");
+        out.append("\n    private ").append(className).append("() {\n    }\n\n")
+            .append("    public static ").append(className).append(" parse(String[] args) throws ArgsException {\n")
+            .append("        ").append(className).append(" parsed = new ").append(className).append("();\n")
+            .append("        int next = 0;\n")
+            .append("        while (next < args.length && args[next].startsWith(\"-\")) {\n")
+            .append("            String flags = args[next++];\n")
+            .append("            if (flags.equals(\"--\"))\n")
+            .append("                break;\n")
+            .append("            for (int i = 1; i < flags.length(); i++) {\n")
+            .append("                char id = flags.charAt(i);\n")
+            .append("                switch (id) {\n");
+        for (int ordinal = 0; ordinal < options.size(); ordinal++) {
+            OptionMethod option = options.get(ordinal);
+            out.append("                    case '").append(option.id).append("':\n")
+                .append("                        parsed.argsFound |= 1L << ").append(ordinal).append(";\n");
+            if (option.kind.missing != null)
+                out.append("                        if (next == args.length)\n")
+                    .append("                            throw ArgsException.stackless(").append(option.kind.missing)
+                    .append(", '").append(option.id).append("', null);\n");
+            out.append("                        ").append(option.kind.assignment(option)).append(";\n")
+                .append("                        break;\n");
+        }
+        out.append("                    default:\n")
+            .append("                        throw ArgsException.stackless(UNEXPECTED_ARGUMENT, id, null);\n")
+            .append("                }\n")
+            .append("            }\n")
+            .append("        }\n")
+            .append("        parsed.nextArgument = next;\n")
+            .append("        return parsed;\n")
+            .append("    }\n\n")
+            .append("    public boolean has(char id) {\n")
+            .append("        switch (id) {\n");
+        for (int ordinal = 0; ordinal < options.size(); ordinal++)
+            out.append("            case '").append(options.get(ordinal).id).append("':\n")
+                .append("                return (argsFound & 1L << ").append(ordinal).append(") != 0;\n");
+        out.append("            default:\n")
+            .append("                return false;\n")
+            .append("        }\n")
+            .append("    }\n\n")
+            .append("    public int nextArgument() {\n")
+            .append("        return nextArgument;\n")
+            .append("    }\n");
+        for (OptionMethod option : options)
+            out.append("\n    public ").append(option.kind.returnType).append(' ').append(option.name).append("() {\n")
+                .append("        return ").append(option.kind.accessor(option.name)).append(";\n")
+                .append("    }\n");
+        out.append("}\n");
+        return out.toString();
+    }
+
+    private static String schema(List<OptionMethod> options) {
+        StringBuilder schema = new StringBuilder();
+        for (OptionMethod option : options) {
+            if (schema.length() > 0)
+                schema.append(',');
+            schema.append(option.id).append(option.kind.tail);
+        }
+        return schema.toString();
+    }
+
+    static final class OptionMethod {
+        final String name;
+        final char id;
+        final OptionKind kind;
+
+        OptionMethod(String name, char id, OptionKind kind) {
+            this.name = name;
+            this.id = id;
+            this.kind = kind;
+        }
+    }
+
+    enum OptionKind {
+        BOOLEAN("boolean", "", "boolean", "", null, "true"),
+        STRING("java.lang.String", "*", "String", " = \"\"", "MISSING_STRING", "args[next++]"),
+        INTEGER("int", "#", "int", "", "MISSING_INTEGER", "ParserSupport.parseInt('%c', args[next++])"),
+        LONG("long", "#L", "long", "", "MISSING_LONG", "ParserSupport.parseLong('%c', args[next++])"),
+        DOUBLE("double", "##", "double", "", "MISSING_DOUBLE", "ParserSupport.parseDouble('%c', args[next++])"),
+        STRING_ARRAY("java.lang.String[]", "[*]", "final List<String>", " = new ArrayList<String>()",
+            "MISSING_STRING", "args[next++]");
+
+        final String typeName;
+        final String tail;
+        final String field;
+        final String initializer;
+        final String missing;
+        final String value;
+        final String returnType;
+
+        OptionKind(String typeName, String tail, String field, String initializer, String missing, String value) {
+            this.typeName = typeName;
+            this.tail = tail;
+            this.field = field;
+            this.initializer = initializer;
+            this.missing = missing;
+            this.value = value;
+            this.returnType = typeName.replace("java.lang.", "");
+        }
+
+        static OptionKind of(String typeName) {
+            for (OptionKind kind : values())
+                if (kind.typeName.equals(typeName))
+                    return kind;
+            return null;
+        }
+
+        String assignment(OptionMethod option) {
+            String converted = String.format(value, option.id);
+            if (this == STRING_ARRAY)
+                return "parsed." + option.name + ".add(" + converted + ")";
+            return "parsed." + option.name + " = " + converted;
+        }
+
+        String accessor(String name) {
+            return this == STRING_ARRAY ? name + ".toArray(new String[0])" : name;
+        }
+    }
+}
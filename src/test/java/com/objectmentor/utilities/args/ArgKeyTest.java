@@ -0,0 +1,74 @@
+package com.objectmentor.utilities.args;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ArgKeyTest {
+
+    @Test
+    public void keysReadTypedValues() throws ArgsException {
+        ArgsSchema schema = ArgsSchema.compile("l,x,p#,n#L,r##,d*,f[*]");
+        ArgKey<Boolean> logging = schema.booleanKey('l');
+        ArgKey<Boolean> extra = schema.booleanKey('x');
+        ArgKey<Integer> port = schema.intKey('p');
+        ArgKey<Long> size = schema.longKey('n');
+        ArgKey<Double> rate = schema.doubleKey('r');
+        ArgKey<String> directory = schema.stringKey('d');
+        ArgKey<String[]> files = schema.stringArrayKey('f');
+
+        Args args = new Args(schema, new String[]{
+            "-l", "-p", "8080", "-n", "7", "-r", "0.5", "-d", "/data", "-f", "a", "-f", "b"});
+        assertThat(args.getBoolean(logging)).isTrue();
+        assertThat(args.getBoolean(extra)).isFalse();
+        assertThat(args.has(port)).isTrue();
+        assertThat(args.has(extra)).isFalse();
+        assertThat(args.getInt(port)).isEqualTo(8080);
+        assertThat(args.getLong(size)).isEqualTo(7L);
+        assertThat(args.getDouble(rate)).isEqualTo(0.5);
+        assertThat(args.getString(directory)).isEqualTo("/data");
+        assertThat(args.getStringArray(files)).containsExactly("a", "b");
+
+        ParsedArgs parsed = args.snapshot();
+        assertThat(parsed.getInt(port)).isEqualTo(8080);
+        assertThat(parsed.getString(directory)).isEqualTo("/data");
+        assertThat(parsed.getStringList(files)).containsExactly("a", "b");
+    }
+
+    @Test
+    public void absentValuesReadAsDefaults() throws ArgsException {
+        ArgsSchema schema = ArgsSchema.compile("d*,f[*]");
+        Args args = new Args(schema, new String[0]);
+        assertThat(args.getString(schema.stringKey('d'))).isEqualTo("");
+        assertThat(args.getStringList(schema.stringArrayKey('f'))).isEmpty();
+        assertThat(args.snapshot().getString(schema.stringKey('d'))).isEqualTo("");
+    }
+
+    @Test
+    public void mismatchedTypeIsRejectedWhenKeyIsCreated() throws ArgsException {
+        ArgsSchema schema = ArgsSchema.compile("p#");
+        assertThrows(IllegalArgumentException.class, () -> schema.stringKey('p'));
+        assertThrows(IllegalArgumentException.class, () -> schema.intKey('q'));
+    }
+
+    @Test
+    public void keyFromAnotherSchemaIsRejected() throws ArgsException {
+        ArgKey<Integer> port = ArgsSchema.compile("p#").intKey('p');
+        Args args = new Args("q#,p#", new String[]{"-p", "1"});
+        assertThrows(IllegalArgumentException.class, () -> args.getInt(port));
+    }
+
+    @Test
+    public void keyOutlivesItsSchemaInTheCache() throws ArgsException {
+        ArgsSchema schema = ArgsSchema.compile("l,d*,p#");
+        ArgKey<Integer> port = schema.intKey('p');
+        ArgsSchema.clearCache();
+        ArgsSchema recompiled = ArgsSchema.compile("l,d*,p#");
+        assertThat(recompiled).isNotSameAs(schema);
+        Args args = new Args(recompiled, new String[]{"-p", "8080"});
+        assertThat(args.getInt(port)).isEqualTo(8080);
+        assertThat(args.has(port)).isTrue();
+        assertThat(args.snapshot().getInt(port)).isEqualTo(8080);
+    }
+}
@@ -0,0 +1,85 @@
+package com.objectmentor.utilities.args;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ArgsEventsTest {
+    private static final String COMPILE = "com.objectmentor.utilities.args.ArgsSchemaCompile";
+    private static final String PARSE = "com.objectmentor.utilities.args.ArgsParse";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void recordsCompileAndParseEventsWhenEnabled() throws Exception {
+        ArgsSchema.clearCache();
+        List<RecordedEvent> events = record(true, () -> {
+            ArgsSchema schema = ArgsSchema.compile("l,p#,d##");
+            Args.parse(schema, new String[]{"-lp", "x", "rest"});
+        });
+
+        RecordedEvent compile = only(events, COMPILE);
+        assertThat(compile.getString("schema")).isEqualTo("l,p#,d##");
+        assertThat(compile.getInt("elementCount")).isEqualTo(3);
+
+        RecordedEvent parse = only(events, PARSE);
+        assertThat(parse.getString("schema")).isEqualTo("l,p#,d##");
+        assertThat(parse.getInt("argumentCount")).isEqualTo(2);
+        assertThat(parse.getInt("optionsFound")).isEqualTo(2);
+        assertThat(parse.getString("errorCode")).isEqualTo("INVALID_INTEGER");
+    }
+
+    @Test
+    public void commandLineEventCountsTheSameArguments() throws Exception {
+        List<RecordedEvent> events = record(true, () -> Args.parse(ArgsSchema.compile("l,p#,d##"), "-lp x rest"));
+        assertThat(only(events, PARSE).getInt("argumentCount")).isEqualTo(2);
+    }
+
+    @Test
+    public void eventsAreDisabledByDefault() throws Exception {
+        ArgsSchema.clearCache();
+        List<RecordedEvent> events = record(false, () -> {
+            ArgsSchema schema = ArgsSchema.compile("l");
+            Args.parse(schema, new String[]{"-l"});
+        });
+        for (RecordedEvent event : events)
+            assertThat(event.getEventType().getName()).isNotIn(COMPILE, PARSE);
+    }
+
+    private List<RecordedEvent> record(boolean enable, ThrowingRunnable work) throws Exception {
+        Path file = directory.resolve("args.jfr");
+        try (Recording recording = new Recording()) {
+            if (enable) {
+                recording.enable(COMPILE);
+                recording.enable(PARSE);
+            }
+            recording.start();
+            work.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        return RecordingFile.readAllEvents(file);
+    }
+
+    private static RecordedEvent only(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> matching = new ArrayList<RecordedEvent>();
+        for (RecordedEvent event : events)
+            if (event.getEventType().getName().equals(name))
+                matching.add(event);
+        assertThat(matching).hasSize(1);
+        return matching.get(0);
+    }
+
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
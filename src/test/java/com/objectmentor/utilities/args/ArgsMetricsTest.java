@@ -0,0 +1,74 @@
+package com.objectmentor.utilities.args;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+import static com.objectmentor.utilities.args.ArgsException.ErrorCode.INVALID_INTEGER;
+import static com.objectmentor.utilities.args.ArgsException.ErrorCode.UNEXPECTED_ARGUMENT;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ArgsMetricsTest {
+
+    @AfterEach
+    public void disableMetrics() {
+        ArgsMetrics.disable();
+    }
+
+    @Test
+    public void nothingIsRecordedWhileDisabled() throws Exception {
+        ArgsMetrics.disable();
+        Args.parse(ArgsSchema.compile("l"), new String[]{"-l"});
+        assertThat(ArgsMetrics.current()).isNull();
+        assertThat(ManagementFactory.getPlatformMBeanServer()
+            .isRegistered(new ObjectName(ArgsMetrics.OBJECT_NAME))).isFalse();
+    }
+
+    @Test
+    public void countsParsesPerSchemaAndErrorsPerCode() throws Exception {
+        ArgsMetrics metrics = ArgsMetrics.enable();
+        ArgsSchema schema = ArgsSchema.compile("l,p#");
+        Args.parse(schema, new String[]{"-l"});
+        Args.parse(schema, new String[]{"-p", "x"});
+        Args.parse(schema, new String[]{"-z"});
+        Args.parse(schema, "-p 1");
+        new ArgsParser(ArgsSchema.compile("q")).parse(new String[]{"-q"});
+
+        assertThat(metrics.getParseCount()).isEqualTo(5);
+        assertThat(metrics.getParseCountBySchema()).containsEntry("l,p#", 4L).containsEntry("q", 1L);
+        assertThat(metrics.getFailureCount()).isEqualTo(2);
+        assertThat(metrics.getErrorCount(INVALID_INTEGER)).isEqualTo(1);
+        assertThat(metrics.getErrorCountByCode()).containsEntry(UNEXPECTED_ARGUMENT.name(), 1L);
+        long recorded = 0;
+        for (long count : metrics.getLatencyHistogram())
+            recorded += count;
+        assertThat(recorded).isEqualTo(5);
+        assertThat(metrics.getLatencyPercentileNanos(99)).isGreaterThanOrEqualTo(metrics.getLatencyPercentileNanos(50));
+    }
+
+    @Test
+    public void isExposedAsPlatformMBean() throws Exception {
+        ArgsMetrics.enable();
+        Args.parse(ArgsSchema.compile("l"), new String[]{"-l"});
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(ArgsMetrics.OBJECT_NAME);
+        assertThat((Long) server.getAttribute(name, "ParseCount")).isEqualTo(1L);
+        server.invoke(name, "reset", new Object[0], new String[0]);
+        assertThat((Long) server.getAttribute(name, "ParseCount")).isEqualTo(0L);
+    }
+
+    @Test
+    public void schemasPastTheCacheSizeShareOneCount() throws Exception {
+        ArgsMetrics metrics = ArgsMetrics.enable();
+        for (int i = 0; i < ArgsSchema.MAX_CACHED_SCHEMAS + 10; i++)
+            Args.parse(ArgsSchema.compile("l,option" + i), new String[]{"-l"});
+        assertThat(metrics.getParseCount()).isEqualTo(ArgsSchema.MAX_CACHED_SCHEMAS + 10);
+        assertThat(metrics.getParseCountBySchema())
+            .hasSize(ArgsSchema.MAX_CACHED_SCHEMAS + 1)
+            .containsEntry("l,option0", 1L)
+            .containsEntry(ArgsMetrics.OTHER_SCHEMAS, 10L);
+    }
+}
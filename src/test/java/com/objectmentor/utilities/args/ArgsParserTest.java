@@ -0,0 +1,50 @@
+package com.objectmentor.utilities.args;
+
+import org.junit.jupiter.api.Test;
+
+import static com.objectmentor.utilities.args.ArgsException.ErrorCode.INVALID_INTEGER;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ArgsParserTest {
+
+    @Test
+    public void stateIsClearedBetweenParses() throws ArgsException {
+        ArgsParser parser = new ArgsParser(ArgsSchema.compile("l,x,p#,d*,f[*]"));
+        Args first = parser.parse(new String[]{"-l", "-p", "80", "-d", "/a", "-f", "1", "-f", "2", "rest"}).getArgs();
+        assertThat(first.getBoolean('l')).isTrue();
+        assertThat(first.getStringList('f')).containsExactly("1", "2");
+        assertThat(first.nextArgument()).isEqualTo(9);
+        ParsedArgs kept = first.snapshot();
+
+        Args second = parser.parse(new String[]{"-x", "-f", "3"}).getArgs();
+        assertThat(second.getBoolean('l')).isFalse();
+        assertThat(second.has('l')).isFalse();
+        assertThat(second.getBoolean('x')).isTrue();
+        assertThat(second.getInt('p')).isEqualTo(0);
+        assertThat(second.getString('d')).isEqualTo("");
+        assertThat(second.getStringList('f')).containsExactly("3");
+        assertThat(second.nextArgument()).isEqualTo(3);
+
+        assertThat(kept.getInt('p')).isEqualTo(80);
+        assertThat(kept.getStringList('f')).containsExactly("1", "2");
+    }
+
+    @Test
+    public void errorIsClearedByNextParse() throws ArgsException {
+        ArgsParser parser = new ArgsParser(ArgsSchema.compile("p#"));
+        ParseResult failed = parser.parse(new String[]{"-p", "x"});
+        assertThat(failed.getErrorCode()).isEqualTo(INVALID_INTEGER);
+        ParseResult succeeded = parser.parse(new String[]{"-p", "7"});
+        assertThat(succeeded.isOk()).isTrue();
+        assertThat(succeeded.getErrorOffset()).isEqualTo(ArgsException.NO_OFFSET);
+        assertThat(succeeded.getArgs().getInt('p')).isEqualTo(7);
+    }
+
+    @Test
+    public void resetClearsValues() throws ArgsException {
+        ArgsParser parser = new ArgsParser(ArgsSchema.compile("l"));
+        Args args = parser.parse(new String[]{"-l"}).getArgs();
+        parser.reset();
+        assertThat(args.getBoolean('l')).isFalse();
+    }
+}
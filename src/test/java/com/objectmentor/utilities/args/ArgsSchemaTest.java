@@ -0,0 +1,79 @@
+package com.objectmentor.utilities.args;
+
+import org.junit.jupiter.api.Test;
+
+import static com.objectmentor.utilities.args.ArgsException.ErrorCode.INVALID_ARGUMENT_FORMAT;
+import static com.objectmentor.utilities.args.ArgsException.ErrorCode.INVALID_ARGUMENT_NAME;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ArgsSchemaTest {
+
+    @Test
+    public void compiledSchemaIsCachedByText() throws ArgsException {
+        ArgsSchema first = ArgsSchema.compile("l,p#,d*");
+        ArgsSchema second = ArgsSchema.compile("l,p#,d*");
+        assertThat(second).isSameAs(first);
+        assertThat(first.size()).isEqualTo(3);
+    }
+
+    @Test
+    public void compiledSchemaCanBeReusedAcrossParses() throws ArgsException {
+        ArgsSchema schema = ArgsSchema.compile("l,p#");
+        Args first = new Args(schema, new String[]{"-l", "-p", "80"});
+        Args second = new Args(schema, new String[]{"-p", "8080"});
+        assertThat(first.getBoolean('l')).isTrue();
+        assertThat(first.getInt('p')).isEqualTo(80);
+        assertThat(second.getBoolean('l')).isFalse();
+        assertThat(second.getInt('p')).isEqualTo(8080);
+    }
+
+    @Test
+    public void blankElementsAreIgnored() throws ArgsException {
+        assertThat(ArgsSchema.compile(" l , ,x ").size()).isEqualTo(2);
+    }
+
+    @Test
+    public void cacheIsBounded() throws ArgsException {
+        ArgsSchema.clearCache();
+        String schema = "l";
+        for (int i = 0; i < ArgsSchema.MAX_CACHED_SCHEMAS * 2; i++) {
+            schema += " ";
+            ArgsSchema.compile(schema);
+        }
+        assertThat(ArgsSchema.cachedSchemaCount()).isLessThanOrEqualTo(ArgsSchema.MAX_CACHED_SCHEMAS);
+    }
+
+    @Test
+    public void invalidElementNameIsRejected() {
+        ArgsException e = assertThrows(ArgsException.class, () -> ArgsSchema.compile("l,*"));
+        assertThat(e.getErrorCode()).isEqualTo(INVALID_ARGUMENT_NAME);
+        assertThat(e.getErrorArgumentId()).isEqualTo('*');
+    }
+
+    @Test
+    public void invalidElementFormatIsRejected() {
+        ArgsException e = assertThrows(ArgsException.class, () -> ArgsSchema.compile("f~"));
+        assertThat(e.getErrorCode()).isEqualTo(INVALID_ARGUMENT_FORMAT);
+        assertThat(e.getErrorParameter()).isEqualTo("~");
+    }
+
+    @Test
+    public void nonAsciiElementNameIsRejected() {
+        ArgsException e = assertThrows(ArgsException.class, () -> ArgsSchema.compile("\u00e9"));
+        assertThat(e.getErrorCode()).isEqualTo(INVALID_ARGUMENT_NAME);
+    }
+
+    @Test
+    public void elementsAreAssignedSlotsPerStorageType() throws ArgsException {
+        ArgsSchema schema = ArgsSchema.compile("l,x,p#,q#,n#L,r##,d*,f[*]");
+        assertThat(schema.slotCount(ArgumentValues.BOOLEANS)).isEqualTo(2);
+        assertThat(schema.slotCount(ArgumentValues.INTS)).isEqualTo(2);
+        assertThat(schema.slotCount(ArgumentValues.LONGS)).isEqualTo(1);
+        assertThat(schema.slotCount(ArgumentValues.DOUBLES)).isEqualTo(1);
+        assertThat(schema.slotCount(ArgumentValues.OBJECTS)).isEqualTo(2);
+        assertThat(schema.slotOf('q', ArgumentType.INTEGER)).isEqualTo(1);
+        assertThat(schema.slotOf('f', ArgumentType.STRING_ARRAY)).isEqualTo(1);
+        assertThat(schema.slotOf('q', ArgumentType.STRING)).isEqualTo(ArgsSchema.NO_ELEMENT);
+    }
+}
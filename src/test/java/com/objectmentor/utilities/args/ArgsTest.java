@@ -2,7 +2,19 @@ package com.objectmentor.utilities.args;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import static com.objectmentor.utilities.args.ArgsException.ErrorCode.INVALID_ARGUMENT_FORMAT;
+import static com.objectmentor.utilities.args.ArgsException.ErrorCode.INVALID_INTEGER;
+import static com.objectmentor.utilities.args.ArgsException.ErrorCode.MISSING_INTEGER;
+import static com.objectmentor.utilities.args.ArgsException.ErrorCode.MISSING_STRING;
+import static com.objectmentor.utilities.args.ArgsException.ErrorCode.UNEXPECTED_ARGUMENT;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 
 public class ArgsTest {
@@ -43,5 +55,169 @@ public class ArgsTest {
         assertThat(directory).isEqualTo("C:/Temp");
     }
 
+    @Test
+    public void hasReportsOnlyArgumentsThatWereFound() throws ArgsException {
+        Args arg = new Args("l,x,p#", new String[]{"-lp", "80"});
+        assertThat(arg.has('l')).isTrue();
+        assertThat(arg.has('p')).isTrue();
+        assertThat(arg.has('x')).isFalse();
+        assertThat(arg.has('q')).isFalse();
+        assertThat(arg.has('\u00e9')).isFalse();
+    }
+
+    @Test
+    public void unknownArgumentReadsAsDefault() throws ArgsException {
+        Args arg = new Args("l", new String[]{"-l"});
+        assertThat(arg.getBoolean('z')).isFalse();
+        assertThat(arg.getInt('z')).isEqualTo(0);
+        assertThat(arg.getString('z')).isEqualTo("");
+    }
+
+    @Test
+    public void unexpectedArgumentIsReported() {
+        ArgsException e = assertThrows(ArgsException.class, () -> new Args("l", new String[]{"-lz"}));
+        assertThat(e.getErrorCode()).isEqualTo(UNEXPECTED_ARGUMENT);
+        assertThat(e.getErrorArgumentId()).isEqualTo('z');
+    }
+
+    @Test
+    public void withLongValue() throws ArgsException {
+        Args arg = new Args("n#L,p#", new String[]{"-n", "-4000000000", "-p", "+8080"});
+        assertThat(arg.getLong('n')).isEqualTo(-4000000000L);
+        assertThat(arg.getInt('p')).isEqualTo(8080);
+    }
+
+    @Test
+    public void withDoubleValue() throws ArgsException {
+        Args arg = new Args("r##", new String[]{"-r", "0.25"});
+        assertThat(arg.getDouble('r')).isEqualTo(0.25);
+    }
+
+    @Test
+    public void invalidDoubleIsReported() {
+        ArgsException e = assertThrows(ArgsException.class, () -> new Args("r##", new String[]{"-r", "0.2x"}));
+        assertThat(e.getErrorCode()).isEqualTo(ArgsException.ErrorCode.INVALID_DOUBLE);
+        assertThat(e.getErrorOffset()).isEqualTo(3);
+    }
+
+    @Test
+    public void withRepeatedStringArrayValues() throws ArgsException {
+        String[] argv = {"-f", "a.txt", "-l", "-f", "b.txt", "-f", "c.txt"};
+        Args arg = new Args("f[*],l", argv);
+        assertThat(arg.getStringArray('f')).containsExactly("a.txt", "b.txt", "c.txt");
+        assertThat(arg.getStringList('f')).containsExactly("a.txt", "b.txt", "c.txt");
+        assertThat(arg.getStringList('f').get(1)).isSameAs(argv[4]);
+        assertThat(arg.getBoolean('l')).isTrue();
+    }
+
+    @Test
+    public void stringArrayGrowsPastInitialCapacity() throws ArgsException {
+        String[] argv = new String[2000];
+        for (int i = 0; i < argv.length; i += 2) {
+            argv[i] = "-f";
+            argv[i + 1] = "file" + i / 2;
+        }
+        Args arg = new Args("f[*]", argv);
+        assertThat(arg.getStringList('f')).hasSize(1000);
+        assertThat(arg.getStringArray('f')[999]).isEqualTo("file999");
+    }
 
+    @Test
+    public void missingStringArrayValueIsReported() {
+        ArgsException e = assertThrows(ArgsException.class, () -> new Args("f[*]", new String[]{"-f"}));
+        assertThat(e.getErrorCode()).isEqualTo(ArgsException.ErrorCode.MISSING_STRING);
+        assertThat(e.getErrorArgumentId()).isEqualTo('f');
+    }
+
+    @Test
+    public void absentStringArrayIsEmpty() throws ArgsException {
+        Args arg = new Args("f[*]", new String[0]);
+        assertThat(arg.getStringArray('f')).isEmpty();
+        assertThat(arg.getStringList('f')).isEmpty();
+    }
+
+    @Test
+    public void stringArrayAcceptsValuesFromDifferentCursors() {
+        StringArrayArgumentMarshaler marshaler = new StringArrayArgumentMarshaler();
+        ParseResult result = new ParseResult();
+        marshaler.set(new ArgumentCursor(new String[]{"x", "y"}), result);
+        marshaler.set(new ArgumentCursor(new String[]{"z"}), result);
+        assertThat(StringArrayArgumentMarshaler.getValue(marshaler)).containsExactly("x", "z");
+    }
+
+    @Test
+    public void marshalerReportsMissingValueWithoutThrowing() {
+        ArgumentCursor cursor = new ArgumentCursor(new String[0]);
+        ParseResult result = new ParseResult();
+        assertThat(new IntegerArgumentMarshaler().set(cursor, result)).isFalse();
+        assertThat(result.getErrorCode()).isEqualTo(MISSING_INTEGER);
+        assertThat(cursor.peek()).isNull();
+    }
+
+    @Test
+    public void iteratorMarshalersRunThroughAdapter() {
+        final List<String> seen = new ArrayList<String>();
+        ArgumentMarshaller legacy = new ArgumentMarshaller() {
+            public void set(Iterator<String> currentArgument) throws ArgsException {
+                if (!currentArgument.hasNext())
+                    throw new ArgsException(MISSING_STRING);
+                seen.add(currentArgument.next());
+            }
+        };
+        IteratorMarshalerAdapter adapter = new IteratorMarshalerAdapter(legacy);
+        ArgumentCursor cursor = new ArgumentCursor(new String[]{"a"});
+        ParseResult result = new ParseResult();
+        assertThat(adapter.set(cursor, result)).isTrue();
+        assertThat(adapter.set(cursor, result)).isFalse();
+        assertThat(seen).containsExactly("a");
+        assertThat(result.getErrorCode()).isEqualTo(MISSING_STRING);
+    }
+
+    @Test
+    public void builtInMarshalersStillImplementArgumentMarshaller() throws ArgsException {
+        ArgumentMarshaller marshaler = new IntegerArgumentMarshaler();
+        marshaler.set(Arrays.asList("42", "rest").iterator());
+        assertThat(IntegerArgumentMarshaler.getValue(marshaler)).isEqualTo(42);
+
+        ArgsException e = assertThrows(ArgsException.class,
+            () -> marshaler.set(Collections.<String>emptyIterator()));
+        assertThat(e.getErrorCode()).isEqualTo(MISSING_INTEGER);
+        e = assertThrows(ArgsException.class, () -> marshaler.set(Arrays.asList("4x").iterator()));
+        assertThat(e.getErrorCode()).isEqualTo(INVALID_INTEGER);
+        assertThat(e.getErrorParameter()).isEqualTo("4x");
+
+        ArgumentMarshaller flag = new BooleanArgumentMarshaler();
+        flag.set(Collections.<String>emptyIterator());
+        assertThat(BooleanArgumentMarshaler.getValue(flag)).isTrue();
+    }
+
+    @Test
+    public void iteratorMarshalersTakePartInAParse() throws ArgsException {
+        final List<String> colours = new ArrayList<String>();
+        ArgumentMarshaller colour = new ArgumentMarshaller() {
+            public void set(Iterator<String> currentArgument) throws ArgsException {
+                if (!currentArgument.hasNext())
+                    throw new ArgsException(MISSING_STRING);
+                String value = currentArgument.next();
+                if (!value.matches("#[0-9a-f]{6}"))
+                    throw new ArgsException(INVALID_ARGUMENT_FORMAT, value);
+                colours.add(value);
+            }
+        };
+        ArgsSchema schema = ArgsSchema.compile("l,c*,p#");
+        ParseResult result = Args.parse(schema, new String[]{"-lc", "#ff0000", "-p", "7", "-c", "#00ff00"},
+            Collections.singletonMap('c', colour));
+        assertThat(result.isOk()).isTrue();
+        assertThat(colours).containsExactly("#ff0000", "#00ff00");
+        assertThat(result.getArgs().getInt('p')).isEqualTo(7);
+        assertThat(result.getArgs().has('c')).isTrue();
+
+        result = Args.parse(schema, new String[]{"-c", "red"}, Collections.singletonMap('c', colour));
+        assertThat(result.getErrorCode()).isEqualTo(INVALID_ARGUMENT_FORMAT);
+        assertThat(result.getErrorArgumentId()).isEqualTo('c');
+        assertThat(result.getErrorParameter()).isEqualTo("red");
+
+        assertThrows(IllegalArgumentException.class,
+            () -> Args.parse(schema, new String[0], Collections.singletonMap('x', colour)));
+    }
 }
@@ -0,0 +1,103 @@
+package com.objectmentor.utilities.args;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static com.objectmentor.utilities.args.ArgsException.ErrorCode.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ArgumentFileTest {
+    @TempDir
+    Path directory;
+
+    private String argumentFile(String contents) throws IOException {
+        Path file = directory.resolve("args.txt");
+        Files.write(file, contents.getBytes(StandardCharsets.UTF_8));
+        return "@" + file;
+    }
+
+    private static Args parse(String schema, String[] argv) throws ArgsException {
+        ParseResult result = Args.parseExpandingFiles(ArgsSchema.compile(schema), argv);
+        if (!result.isOk())
+            throw result.toException();
+        return result.getArgs();
+    }
+
+    @Test
+    public void argumentFilesAreOnlyExpandedOnRequest() throws Exception {
+        Args args = new Args("l", new String[]{"-l", "@user", "-l"});
+        assertThat(args.nextArgument()).isEqualTo(1);
+        assertThat(Args.parse(ArgsSchema.compile("l"), new String[]{argumentFile("-l")}).getArgs().has('l')).isFalse();
+    }
+
+    @Test
+    public void optionsAreReadFromArgumentFile() throws Exception {
+        String file = argumentFile("-lp 8080\n  -d '/data/my dir'\n-f a -f \"b \\\"c\\\"\"\t-f c\\ d\n");
+        Args args = parse("l,p#,d*,f[*],x", new String[]{"-x", file, "rest"});
+        assertThat(args.getBoolean('x')).isTrue();
+        assertThat(args.getBoolean('l')).isTrue();
+        assertThat(args.getInt('p')).isEqualTo(8080);
+        assertThat(args.getString('d')).isEqualTo("/data/my dir");
+        assertThat(args.getStringArray('f')).containsExactly("a", "b \"c\"", "c d");
+        assertThat(args.nextArgument()).isEqualTo(2);
+    }
+
+    @Test
+    public void nonAsciiValuesAreDecodedAsUtf8() throws Exception {
+        Args args = parse("d*", new String[]{argumentFile("-d \u00e9t\u00e9/\u4e2d/\ud83d\ude00")});
+        assertThat(args.getString('d')).isEqualTo("\u00e9t\u00e9/\u4e2d/\ud83d\ude00");
+    }
+
+    @Test
+    public void emptyArgumentFileIsAllowed() throws Exception {
+        Args args = parse("l", new String[]{argumentFile(""), "-l"});
+        assertThat(args.getBoolean('l')).isTrue();
+    }
+
+    @Test
+    public void errorsInsideArgumentFileAreReported() throws Exception {
+        ArgsSchema schema = ArgsSchema.compile("l,p#");
+        ParseResult unexpected = Args.parseExpandingFiles(schema, new String[]{argumentFile("-l -z")});
+        assertThat(unexpected.getErrorCode()).isEqualTo(UNEXPECTED_ARGUMENT);
+        assertThat(unexpected.getErrorArgumentId()).isEqualTo('z');
+
+        ParseResult missing = Args.parseExpandingFiles(schema, new String[]{argumentFile("-p")});
+        assertThat(missing.getErrorCode()).isEqualTo(MISSING_INTEGER);
+
+        ParseResult unterminated = Args.parseExpandingFiles(schema, new String[]{argumentFile("-l 'abc")});
+        assertThat(unterminated.getErrorCode()).isEqualTo(INVALID_ARGUMENT_FILE);
+        assertThat(unterminated.getErrorOffset()).isEqualTo(3);
+
+        ParseResult unterminatedValue = Args.parseExpandingFiles(schema, new String[]{argumentFile("-p \"12")});
+        assertThat(unterminatedValue.getErrorCode()).isEqualTo(INVALID_ARGUMENT_FILE);
+        assertThat(unterminatedValue.getErrorOffset()).isEqualTo(3);
+
+        ParseResult positional = Args.parseExpandingFiles(schema, new String[]{argumentFile("-l file")});
+        assertThat(positional.getErrorCode()).isEqualTo(INVALID_ARGUMENT_FILE);
+        assertThat(positional.getErrorOffset()).isEqualTo(3);
+    }
+
+    @Test
+    public void argumentFileTooLargeToMapIsReported() throws Exception {
+        Path file = directory.resolve("huge.txt");
+        try (RandomAccessFile sparse = new RandomAccessFile(file.toFile(), "rw")) {
+            sparse.setLength(Integer.MAX_VALUE + 1L);
+        }
+        ParseResult result = Args.parseExpandingFiles(ArgsSchema.compile("l"), new String[]{"@" + file});
+        assertThat(result.getErrorCode()).isEqualTo(INVALID_ARGUMENT_FILE);
+    }
+
+    @Test
+    public void missingArgumentFileIsReported() throws Exception {
+        ParseResult result = Args.parseExpandingFiles(ArgsSchema.compile("l"),
+            new String[]{"@" + directory.resolve("missing.txt")});
+        assertThat(result.getErrorCode()).isEqualTo(INVALID_ARGUMENT_FILE);
+        assertThat(result.getErrorParameter()).endsWith("missing.txt");
+    }
+}
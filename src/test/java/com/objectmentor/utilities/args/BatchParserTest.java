@@ -0,0 +1,57 @@
+package com.objectmentor.utilities.args;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+
+import static com.objectmentor.utilities.args.ArgsException.ErrorCode.INVALID_INTEGER;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BatchParserTest {
+
+    private static List<String[]> rows(int count) {
+        List<String[]> rows = new ArrayList<String[]>();
+        for (int i = 0; i < count; i++)
+            rows.add(i % 5 == 0
+                ? new String[]{"-p", "bad" + i}
+                : new String[]{"-l", "-p", Integer.toString(i)});
+        return rows;
+    }
+
+    @Test
+    public void resultsAreReturnedInInputOrder() throws ArgsException {
+        ArgsSchema schema = ArgsSchema.compile("l,p#");
+        ForkJoinPool pool = new ForkJoinPool(4);
+        List<ParseResult> results = BatchParser.parseAll(schema, rows(10 * BatchParser.ROWS_PER_TASK), pool);
+        pool.shutdown();
+        assertThat(results).hasSize(10 * BatchParser.ROWS_PER_TASK);
+        for (int i = 0; i < results.size(); i++) {
+            ParseResult result = results.get(i);
+            if (i % 5 == 0) {
+                assertThat(result.getErrorCode()).isEqualTo(INVALID_INTEGER);
+                assertThat(result.getErrorParameter()).isEqualTo("bad" + i);
+            } else
+                assertThat(result.getArgs().getInt('p')).isEqualTo(i);
+        }
+    }
+
+    @Test
+    public void nonRandomAccessListsAreAccepted() throws ArgsException {
+        List<ParseResult> results = BatchParser.parseAll(ArgsSchema.compile("l,p#"),
+            new LinkedList<String[]>(rows(3000)));
+        assertThat(results.get(2999).getArgs().getInt('p')).isEqualTo(2999);
+    }
+
+    @Test
+    public void spliteratorResultsAreAllDelivered() throws ArgsException {
+        ConcurrentLinkedQueue<ParseResult> results = new ConcurrentLinkedQueue<ParseResult>();
+        BatchParser.parseAll(ArgsSchema.compile("l,p#"), rows(5000).spliterator(), results::add,
+            ForkJoinPool.commonPool());
+        assertThat(results).hasSize(5000);
+        assertThat(results.stream().filter(ParseResult::isOk).count()).isEqualTo(4000);
+    }
+}
@@ -0,0 +1,99 @@
+package com.objectmentor.utilities.args;
+
+import org.junit.jupiter.api.Test;
+
+import static com.objectmentor.utilities.args.ArgsException.ErrorCode.INVALID_INTEGER;
+import static com.objectmentor.utilities.args.ArgsException.ErrorCode.OK;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ColumnarSinkTest {
+
+    @Test
+    public void storesEveryTypeByRow() throws ArgsException {
+        ArgsSchema schema = ArgsSchema.compile("l,p#,n#L,d##,s*,f[*]");
+        ColumnarSink sink = new ColumnarSink(schema);
+        sink.append(Args.parse(schema, new String[]{"-lpndsff", "42", "-7", "0.5", "caf\u00e9", "x", "\ud83d\ude00"}));
+        sink.append(Args.parse(schema, new String[]{"-p", "3"}));
+
+        assertThat(sink.rowCount()).isEqualTo(2);
+        assertThat(sink.getErrorCode(0)).isEqualTo(OK);
+        assertThat(sink.getBoolean(0, 'l')).isTrue();
+        assertThat(sink.getInt(0, 'p')).isEqualTo(42);
+        assertThat(sink.getLong(0, 'n')).isEqualTo(-7L);
+        assertThat(sink.getDouble(0, 'd')).isEqualTo(0.5);
+        assertThat(sink.getString(0, 's')).isEqualTo("caf\u00e9");
+        assertThat(sink.getStringByteLength(0, 's')).isEqualTo(5);
+        assertThat(sink.getStringArrayLength(0, 'f')).isEqualTo(2);
+        assertThat(sink.getStringArrayElement(0, 'f', 0)).isEqualTo("x");
+        assertThat(sink.getStringArrayElement(0, 'f', 1)).isEqualTo("\ud83d\ude00");
+
+        assertThat(sink.getBoolean(1, 'l')).isFalse();
+        assertThat(sink.has(1, 'p')).isTrue();
+        assertThat(sink.has(1, 's')).isFalse();
+        assertThat(sink.getInt(1, 'p')).isEqualTo(3);
+        assertThat(sink.getString(1, 's')).isEmpty();
+        assertThat(sink.getStringArrayLength(1, 'f')).isZero();
+    }
+
+    @Test
+    public void failedParsesAreRowsWithAnErrorCode() throws ArgsException {
+        ArgsSchema schema = ArgsSchema.compile("p#");
+        ColumnarSink sink = new ColumnarSink(schema);
+        int row = sink.append(Args.parse(schema, new String[]{"-p", "x"}));
+        assertThat(sink.getErrorCode(row)).isEqualTo(INVALID_INTEGER);
+        assertThat(sink.has(row, 'p')).isFalse();
+    }
+
+    @Test
+    public void failedRowsReadAsEmpty() throws ArgsException {
+        ArgsSchema schema = ArgsSchema.compile("p#,s*,f[*]");
+        ColumnarSink sink = new ColumnarSink(schema);
+        int firstRow = sink.append(Args.parse(schema, new String[]{"-x"}));
+        sink.append(Args.parse(schema, new String[]{"-p", "3", "-s", "abcd", "-f", "abcd", "-f", "efgh"}));
+        int failedRow = sink.append(Args.parse(schema, new String[]{"-p"}));
+        for (int row : new int[]{firstRow, failedRow}) {
+            assertThat(sink.getStringArrayLength(row, 'f')).isZero();
+            assertThat(sink.getString(row, 's')).isEmpty();
+            assertThat(sink.getInt(row, 'p')).isZero();
+        }
+    }
+
+    @Test
+    public void readsOptionsByLongName() throws ArgsException {
+        ArgsSchema schema = ArgsSchema.compile("verbose,port#,size#L,rate##,n|name*,files[*]");
+        ColumnarSink sink = new ColumnarSink(schema);
+        sink.append(new Args(schema, new String[]{
+            "--verbose", "--port=80", "--size", "5000000000", "--rate=0.5", "-n", "x", "--files", "a", "--files", "b"}));
+        assertThat(sink.has(0, "port")).isTrue();
+        assertThat(sink.has(0, "missing")).isFalse();
+        assertThat(sink.getBoolean(0, "verbose")).isTrue();
+        assertThat(sink.getInt(0, "port")).isEqualTo(80);
+        assertThat(sink.getLong(0, "size")).isEqualTo(5000000000L);
+        assertThat(sink.getDouble(0, "rate")).isEqualTo(0.5);
+        assertThat(sink.getString(0, "name")).isEqualTo("x");
+        assertThat(sink.getStringByteLength(0, "name")).isEqualTo(1);
+        assertThat(sink.getStringArrayLength(0, "files")).isEqualTo(2);
+        assertThat(sink.getStringArrayElement(0, "files", 1)).isEqualTo("b");
+        assertThat(sink.getInt(0, "rate")).isEqualTo(0);
+    }
+
+    @Test
+    public void growsPastInitialCapacity() throws ArgsException {
+        ArgsSchema schema = ArgsSchema.compile("p#,s*");
+        ColumnarSink sink = new ColumnarSink(schema, 2);
+        ArgsParser parser = new ArgsParser(schema);
+        for (int i = 0; i < 5000; i++)
+            sink.append(parser.parse(new String[]{"-p", Integer.toString(i), "-s", "row" + i}));
+        assertThat(sink.rowCount()).isEqualTo(5000);
+        assertThat(sink.getInt(4321, 'p')).isEqualTo(4321);
+        assertThat(sink.getString(4999, 's')).isEqualTo("row4999");
+        assertThrows(IndexOutOfBoundsException.class, () -> sink.getInt(5000, 'p'));
+    }
+
+    @Test
+    public void rejectsArgsFromOtherSchema() throws ArgsException {
+        ColumnarSink sink = new ColumnarSink(ArgsSchema.compile("p#"));
+        assertThrows(IllegalArgumentException.class, () -> sink.append(new Args("l", new String[]{"-l"})));
+    }
+}
@@ -0,0 +1,78 @@
+package com.objectmentor.utilities.args;
+
+import org.junit.jupiter.api.Test;
+
+import static com.objectmentor.utilities.args.ArgsException.ErrorCode.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CommandLineTest {
+
+    @Test
+    public void parsesQuotedCommandLine() throws ArgsException {
+        String commandLine = "-lp 8080 -d \"C:/Program Files\" -f 'a b' -f c\\ d  input.txt more";
+        Args args = new Args(ArgsSchema.compile("l,p#,d*,f[*]"), commandLine);
+        assertThat(args.getBoolean('l')).isTrue();
+        assertThat(args.getInt('p')).isEqualTo(8080);
+        assertThat(args.getString('d')).isEqualTo("C:/Program Files");
+        assertThat(args.getStringArray('f')).containsExactly("a b", "c d");
+        assertThat(args.nextArgument()).isEqualTo(8);
+        assertThat(commandLine.substring(args.nextArgumentOffset())).isEqualTo("input.txt more");
+    }
+
+    @Test
+    public void numericValuesAreReadFromTheTokenBuffer() throws ArgsException {
+        Args args = new Args(ArgsSchema.compile("p#,n#L,r##,s*"), "-p 1 -n '-20' -r 2.5e3 -s \"x y\" -p 7 rest");
+        assertThat(args.getInt('p')).isEqualTo(7);
+        assertThat(args.getLong('n')).isEqualTo(-20L);
+        assertThat(args.getDouble('r')).isEqualTo(2500.0);
+        assertThat(args.getString('s')).isEqualTo("x y");
+        assertThat(args.nextArgument()).isEqualTo(10);
+        ParseResult invalid = Args.parse(ArgsSchema.compile("r##"), "-r 1.5x");
+        assertThat(invalid.getErrorParameter()).isEqualTo("1.5x");
+        assertThat(invalid.getErrorOffset()).isEqualTo(3);
+    }
+
+    @Test
+    public void parsesCharArraySlice() throws ArgsException {
+        char[] buffer = "xxx-l -p 42yyy".toCharArray();
+        ParseResult result = Args.parse(ArgsSchema.compile("l,p#"), buffer, 3, 8);
+        assertThat(result.getArgs().getBoolean('l')).isTrue();
+        assertThat(result.getArgs().getInt('p')).isEqualTo(42);
+        assertThat(result.getArgs().nextArgumentOffset()).isEqualTo(11);
+    }
+
+    @Test
+    public void reportsErrorsWithoutThrowing() throws ArgsException {
+        ArgsSchema schema = ArgsSchema.compile("l,p#");
+        ParseResult unexpected = Args.parse(schema, "-l -x");
+        assertThat(unexpected.getErrorCode()).isEqualTo(UNEXPECTED_ARGUMENT);
+        assertThat(unexpected.getErrorArgumentId()).isEqualTo('x');
+
+        ParseResult invalid = Args.parse(schema, "-p '12a'");
+        assertThat(invalid.getErrorCode()).isEqualTo(INVALID_INTEGER);
+        assertThat(invalid.getErrorParameter()).isEqualTo("12a");
+
+        ParseResult unterminated = Args.parse(schema, "-l \"abc");
+        assertThat(unterminated.getErrorCode()).isEqualTo(UNTERMINATED_QUOTE);
+        assertThat(unterminated.getErrorOffset()).isEqualTo(3);
+    }
+
+    @Test
+    public void unterminatedQuoteInValuePositionIsReported() throws ArgsException {
+        ParseResult result = Args.parse(ArgsSchema.compile("l,d*,p#"), "-l -d \"abc");
+        assertThat(result.getErrorCode()).isEqualTo(UNTERMINATED_QUOTE);
+        assertThat(result.getErrorOffset()).isEqualTo(6);
+        assertThat(result.getErrorArgumentId()).isEqualTo('\0');
+
+        result = Args.parse(ArgsSchema.compile("l,d*,p#"), "-p '12");
+        assertThat(result.getErrorCode()).isEqualTo(UNTERMINATED_QUOTE);
+        assertThat(result.getErrorOffset()).isEqualTo(3);
+    }
+
+    @Test
+    public void emptyCommandLineIsValid() throws ArgsException {
+        Args args = new Args(ArgsSchema.compile("l"), "   ");
+        assertThat(args.has('l')).isFalse();
+        assertThat(args.nextArgument()).isEqualTo(0);
+    }
+}
@@ -0,0 +1,110 @@
+package com.objectmentor.utilities.args;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CompleterTest {
+
+    @Test
+    public void completesEverySpellingWithThePrefix() throws ArgsException {
+        Completer completer = ArgsSchema.compile("l,v|verbose,p|port#,print*,f|file[*],files").completer();
+        assertThat(completer.complete("--p")).containsExactly("--port", "--print");
+        assertThat(completer.complete("--f")).containsExactly("--file", "--files");
+        assertThat(completer.complete("-")).hasSize(9);
+        assertThat(completer.complete("-v")).containsExactly("-v");
+        assertThat(completer.complete("--x")).isEmpty();
+        assertThat(completer.complete("")).isEqualTo(completer.options());
+    }
+
+    @Test
+    public void completerIsBuiltOncePerSchema() throws ArgsException {
+        ArgsSchema schema = ArgsSchema.compile("l,port#");
+        assertThat(schema.completer()).isSameAs(schema.completer());
+    }
+
+    @Test
+    public void resolvesUniqueAbbreviations() throws ArgsException {
+        Completer completer = ArgsSchema.compile("v|verbose,port#,print*,file,files").completer();
+        assertThat(completer.resolve("--verb")).isEqualTo("--verbose");
+        assertThat(completer.resolve("--po")).isEqualTo("--port");
+        assertThat(completer.resolve("--p")).isNull();
+        assertThat(completer.resolve("--file")).isEqualTo("--file");
+        assertThat(completer.resolve("--files")).isEqualTo("--files");
+        assertThat(completer.resolve("--fil")).isNull();
+        assertThat(completer.resolve("--zz")).isNull();
+        assertThat(completer.resolve("-v")).isEqualTo("-v");
+    }
+
+    @Test
+    public void completesOnlyWhereAnOptionCanAppear() throws ArgsException {
+        Completer completer = ArgsSchema.compile("l,p|port#,d##,name*").completer();
+        assertThat(completer.complete(new String[]{"--na"})).containsExactly("--name");
+        assertThat(completer.complete(new String[]{"-l", "--po"})).containsExactly("--port");
+        assertThat(completer.complete(new String[]{"--port", "-"})).isEmpty();
+        assertThat(completer.complete(new String[]{"--port=8", "--"})).containsExactly("--name", "--port");
+        assertThat(completer.complete(new String[]{"-lpd", "1", "-"})).isEmpty();
+        assertThat(completer.complete(new String[]{"-lpd", "1", "2", "-d"})).containsExactly("-d");
+        assertThat(completer.complete(new String[]{"--", "-"})).isEmpty();
+        assertThat(completer.complete(new String[]{"file", "-"})).isEmpty();
+        assertThat(completer.complete(new String[]{"na"})).isEmpty();
+        assertThat(completer.complete(new String[0])).isEmpty();
+    }
+
+    @Test
+    public void completesThousandsOfOptions() throws ArgsException {
+        StringBuilder schemaText = new StringBuilder("v");
+        for (int i = 0; i < 2000; i++)
+            schemaText.append(",option-").append(i);
+        Completer completer = ArgsSchema.compile(schemaText.toString()).completer();
+        assertThat(completer.complete("--option-199")).containsExactly(
+            "--option-199", "--option-1990", "--option-1991", "--option-1992", "--option-1993",
+            "--option-1994", "--option-1995", "--option-1996", "--option-1997", "--option-1998", "--option-1999");
+        assertThat(completer.resolve("--option-1999")).isEqualTo("--option-1999");
+        assertThat(completer.complete("--option-")).hasSize(2000);
+    }
+
+    @Test
+    public void writesBashCompletionTable() throws ArgsException, IOException {
+        StringBuilder script = new StringBuilder();
+        ArgsSchema.compile("l,p|port#").completer().writeBashCompletion("my-tool", script);
+        assertThat(script.toString())
+            .contains("_my_tool_complete() {")
+            .contains("        --port|-p) return ;;")
+            .contains("compgen -W '--port -l -p' -- \"$cur\"")
+            .endsWith("complete -o default -F _my_tool_complete my-tool\n");
+    }
+
+    @Test
+    public void writesZshCompletionTable() throws ArgsException, IOException {
+        StringBuilder script = new StringBuilder();
+        ArgsSchema.compile("l,p|port#,f[*]").completer().writeZshCompletion("tool", script);
+        assertThat(script.toString())
+            .startsWith("#compdef tool\n")
+            .contains("'-l'")
+            .contains("'(-p --port)-p:value:_default'")
+            .contains("'(-p --port)--port=:value:_default'")
+            .contains("'*-f:value:_default'");
+    }
+
+    @Test
+    public void schemaTextIsNotCopiedIntoTheScript() throws ArgsException, IOException {
+        Completer completer = ArgsSchema.compile("l,d*=x\ntouch /tmp/pwned").completer();
+        StringBuilder bash = new StringBuilder();
+        completer.writeBashCompletion("tool", bash);
+        StringBuilder zsh = new StringBuilder();
+        completer.writeZshCompletion("tool", zsh);
+        assertThat(bash.toString()).doesNotContain("touch");
+        assertThat(zsh.toString()).doesNotContain("touch");
+    }
+
+    @Test
+    public void rejectsCommandNamesThatBreakTheScript() throws ArgsException {
+        Completer completer = ArgsSchema.compile("l").completer();
+        assertThrows(IllegalArgumentException.class, () -> completer.writeBashCompletion("rm -rf", new StringBuilder()));
+        assertThrows(IllegalArgumentException.class, () -> completer.writeZshCompletion("", new StringBuilder()));
+    }
+}
@@ -0,0 +1,65 @@
+package com.objectmentor.utilities.args;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static com.objectmentor.utilities.args.ArgsException.ErrorCode.INVALID_DOUBLE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DecimalParserTest {
+
+    private static double parse(String token) {
+        ParseResult result = new ParseResult();
+        double value = DecimalParser.parseDouble(token, INVALID_DOUBLE, result);
+        assertThat(result.isOk()).as(token).isTrue();
+        return value;
+    }
+
+    private static int invalidOffset(String token) {
+        ParseResult result = new ParseResult();
+        DecimalParser.parseDouble(token, INVALID_DOUBLE, result);
+        assertThat(result.getErrorCode()).as(token).isEqualTo(INVALID_DOUBLE);
+        return result.getErrorOffset();
+    }
+
+    @Test
+    public void parsesTheSameValuesAsDoubleParseDouble() {
+        String[] tokens = {"0", "-0", "0.0", "1", "-1", "+2.5", "0.1", ".5", "5.", "3.14159",
+            "1e10", "1E-10", "2.2250738585072014E-308", "4.9e-324", "1.7976931348623157e308",
+            "9007199254740993", "123456789012345678901234567890", "0.000000000000000000001",
+            "1e400", "-1e-400", "0.30000000000000004", "100000000000000000000000"};
+        for (String token : tokens)
+            assertThat(parse(token)).as(token).isEqualTo(Double.parseDouble(token));
+    }
+
+    @Test
+    public void mantissasPastLongRangeDoNotOverflow() {
+        String[] tokens = {"9999999999999999999", "0.9999999999999999999", "9223372036854775808",
+            "-9999999999999999999", "18446744073709551616", "99999999999999999999e-5"};
+        for (String token : tokens)
+            assertThat(parse(token)).as(token).isEqualTo(Double.parseDouble(token));
+    }
+
+    @Test
+    public void fastPathIsCorrectlyRounded() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            String token = Long.toString(random.nextLong() >>> random.nextInt(64))
+                + "e" + (random.nextInt(60) - 30);
+            assertThat(parse(token)).as(token).isEqualTo(Double.parseDouble(token));
+        }
+    }
+
+    @Test
+    public void reportsOffsetOfInvalidCharacter() {
+        assertThat(invalidOffset("")).isEqualTo(0);
+        assertThat(invalidOffset("-")).isEqualTo(1);
+        assertThat(invalidOffset(".")).isEqualTo(1);
+        assertThat(invalidOffset("1.2.3")).isEqualTo(3);
+        assertThat(invalidOffset("1e")).isEqualTo(2);
+        assertThat(invalidOffset("1e+x")).isEqualTo(3);
+        assertThat(invalidOffset("NaN")).isEqualTo(0);
+        assertThat(invalidOffset("2.5d")).isEqualTo(3);
+    }
+}
@@ -0,0 +1,90 @@
+package com.objectmentor.utilities.args;
+
+import org.junit.jupiter.api.Test;
+
+import static com.objectmentor.utilities.args.ArgsException.ErrorCode.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class GeneratedParserTest {
+
+    @GenerateParser
+    public interface ServerOptions {
+        @Option('l')
+        boolean logging();
+
+        @Option('p')
+        int port();
+
+        @Option('n')
+        long count();
+
+        @Option('r')
+        double ratio();
+
+        @Option('d')
+        String directory();
+
+        @Option('f')
+        String[] files();
+    }
+
+    @Test
+    public void generatedSchemaMatchesDeclarations() {
+        assertThat(ServerOptionsParser.SCHEMA).isEqualTo("l,p#,n#L,r##,d*,f[*]");
+    }
+
+    @Test
+    public void parsesLikeArgs() throws ArgsException {
+        String[] argv = {"-lp", "8080", "-nrd", "-12", "2.5", "/data", "-f", "a", "-f", "b", "rest"};
+        ServerOptions options = ServerOptionsParser.parse(argv);
+        Args args = new Args(ServerOptionsParser.SCHEMA, argv);
+
+        assertThat(options.logging()).isEqualTo(args.getBoolean('l')).isTrue();
+        assertThat(options.port()).isEqualTo(args.getInt('p')).isEqualTo(8080);
+        assertThat(options.count()).isEqualTo(args.getLong('n')).isEqualTo(-12L);
+        assertThat(options.ratio()).isEqualTo(args.getDouble('r')).isEqualTo(2.5);
+        assertThat(options.directory()).isEqualTo(args.getString('d')).isEqualTo("/data");
+        assertThat(options.files()).isEqualTo(args.getStringArray('f')).containsExactly("a", "b");
+        assertThat(ServerOptionsParser.parse(argv).nextArgument()).isEqualTo(args.nextArgument());
+    }
+
+    @Test
+    public void doubleDashEndsOptionsLikeArgs() throws ArgsException {
+        String[] argv = {"-l", "--", "-x"};
+        ServerOptionsParser options = ServerOptionsParser.parse(argv);
+        assertThat(options.logging()).isTrue();
+        assertThat(options.nextArgument()).isEqualTo(new Args(ServerOptionsParser.SCHEMA, argv).nextArgument())
+            .isEqualTo(2);
+    }
+
+    @Test
+    public void absentOptionsHaveArgsDefaults() throws ArgsException {
+        ServerOptionsParser options = ServerOptionsParser.parse(new String[0]);
+        assertThat(options.has('p')).isFalse();
+        assertThat(options.has('x')).isFalse();
+        assertThat(options.port()).isZero();
+        assertThat(options.directory()).isEmpty();
+        assertThat(options.files()).isEmpty();
+    }
+
+    @Test
+    public void reportsSameErrorsAsArgs() {
+        assertSameError(new String[]{"-x"}, UNEXPECTED_ARGUMENT);
+        assertSameError(new String[]{"-p"}, MISSING_INTEGER);
+        assertSameError(new String[]{"-p", "80x"}, INVALID_INTEGER);
+        assertSameError(new String[]{"-n", "99999999999999999999"}, INVALID_LONG);
+        assertSameError(new String[]{"-r", "1e"}, INVALID_DOUBLE);
+        assertSameError(new String[]{"-d"}, MISSING_STRING);
+        assertSameError(new String[]{"-f"}, MISSING_STRING);
+    }
+
+    private static void assertSameError(String[] argv, ArgsException.ErrorCode errorCode) {
+        ArgsException generated = assertThrows(ArgsException.class, () -> ServerOptionsParser.parse(argv));
+        ArgsException interpreted = assertThrows(ArgsException.class, () -> new Args(ServerOptionsParser.SCHEMA, argv));
+        assertThat(generated.getErrorCode()).isEqualTo(errorCode);
+        assertThat(generated.errorMessage()).isEqualTo(interpreted.errorMessage());
+        assertThat(generated.getErrorArgumentId()).isEqualTo(interpreted.getErrorArgumentId());
+        assertThat(generated.getErrorOffset()).isEqualTo(interpreted.getErrorOffset());
+    }
+}
@@ -0,0 +1,120 @@
+package com.objectmentor.utilities.args;
+
+import org.junit.jupiter.api.Test;
+
+import static com.objectmentor.utilities.args.ArgsException.ErrorCode.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class LazyArgsTest {
+
+    @Test
+    public void convertsValuesOnAccess() throws ArgsException {
+        LazyArgs args = LazyArgs.parse("l,p#,n#L,d##,s*,f[*]",
+            new String[]{"-lpndsf", "42", "-7", "0.5", "x", "y", "rest"});
+        assertThat(args.getBoolean('l')).isTrue();
+        assertThat(args.getInt('p')).isEqualTo(42);
+        assertThat(args.getInt('p')).isEqualTo(42);
+        assertThat(args.getLong('n')).isEqualTo(-7L);
+        assertThat(args.getDouble('d')).isEqualTo(0.5);
+        assertThat(args.getString('s')).isEqualTo("x");
+        assertThat(args.getStringArray('f')).containsExactly("y");
+        assertThat(args.nextArgument()).isEqualTo(6);
+    }
+
+    @Test
+    public void readsOptionsByLongName() throws ArgsException {
+        LazyArgs args = LazyArgs.parse("verbose,port#,size#L,rate##,n|name*,files[*]", new String[]{
+            "--verbose", "--port=80", "--size", "5000000000", "--rate=0.5", "-n", "x", "--files", "a"});
+        assertThat(args.has("port")).isTrue();
+        assertThat(args.has("missing")).isFalse();
+        assertThat(args.getBoolean("verbose")).isTrue();
+        assertThat(args.getInt("port")).isEqualTo(80);
+        assertThat(args.getLong("size")).isEqualTo(5000000000L);
+        assertThat(args.getDouble("rate")).isEqualTo(0.5);
+        assertThat(args.getString("name")).isEqualTo("x");
+        assertThat(args.getStringArray("files")).containsExactly("a");
+        assertThat(args.getStringList("files")).containsExactly("a");
+        assertThat(args.getInt("rate")).isEqualTo(0);
+    }
+
+    @Test
+    public void longNameConversionErrorsNameTheOption() throws ArgsException {
+        LazyArgs args = LazyArgs.parse("port#", new String[]{"--port", "99999999999"});
+        ArgsException e = assertThrows(ArgsException.class, () -> args.getInt("port"));
+        assertThat(e.getErrorCode()).isEqualTo(INVALID_INTEGER);
+        assertThat(e.getErrorArgumentName()).isEqualTo("port");
+    }
+
+    @Test
+    public void absentValuesAreDefaults() throws ArgsException {
+        LazyArgs args = LazyArgs.parse("p#,d##", new String[0]);
+        assertThat(args.has('p')).isFalse();
+        assertThat(args.getInt('p')).isEqualTo(0);
+        assertThat(args.getDouble('d')).isEqualTo(0.0);
+    }
+
+    @Test
+    public void cheapSyntaxErrorsAreReportedWhileParsing() {
+        ArgsException e = assertThrows(ArgsException.class,
+            () -> LazyArgs.parse("p#", new String[]{"-p", "4x"}));
+        assertThat(e.getErrorCode()).isEqualTo(INVALID_INTEGER);
+        assertThat(e.getErrorArgumentId()).isEqualTo('p');
+        assertThat(e.getErrorOffset()).isEqualTo(1);
+
+        e = assertThrows(ArgsException.class, () -> LazyArgs.parse("d##", new String[]{"-d"}));
+        assertThat(e.getErrorCode()).isEqualTo(MISSING_DOUBLE);
+    }
+
+    @Test
+    public void malformedDoublesAreReportedWhileParsing() throws ArgsException {
+        ArgsException e = assertThrows(ArgsException.class, () -> LazyArgs.parse("r##", new String[]{"-r", "abc"}));
+        assertThat(e.getErrorCode()).isEqualTo(INVALID_DOUBLE);
+        assertThat(e.getErrorArgumentId()).isEqualTo('r');
+        assertThat(e.getErrorOffset()).isEqualTo(0);
+        e = assertThrows(ArgsException.class, () -> LazyArgs.parse("r##", new String[]{"-r", "1e"}));
+        assertThat(e.getErrorOffset()).isEqualTo(2);
+        e = assertThrows(ArgsException.class, () -> LazyArgs.parse("r##", new String[]{"-r", "1.5.2"}));
+        assertThat(e.getErrorOffset()).isEqualTo(3);
+        assertThat(LazyArgs.parse("r##", new String[]{"-r", "-.5E+3"}).getDouble('r')).isEqualTo(-500.0);
+    }
+
+    @Test
+    public void conversionErrorsAreDeferredUntilAccess() throws ArgsException {
+        LazyArgs args = LazyArgs.parse("p#,n#L", new String[]{"-pn", "99999999999", "99999999999999999999"});
+        ArgsException e = assertThrows(ArgsException.class, () -> args.getInt('p'));
+        assertThat(e.getErrorCode()).isEqualTo(INVALID_INTEGER);
+        assertThat(e.getErrorArgumentId()).isEqualTo('p');
+        assertThat(assertThrows(ArgsException.class, () -> args.getLong('n')).getErrorCode())
+            .isEqualTo(INVALID_LONG);
+    }
+
+    @Test
+    public void strictModeReportsConversionErrorsUpFront() {
+        ArgsException e = assertThrows(ArgsException.class,
+            () -> LazyArgs.parseStrict("p#,n#L", new String[]{"-pn", "1", "99999999999999999999"}));
+        assertThat(e.getErrorCode()).isEqualTo(INVALID_LONG);
+        assertThat(e.getErrorArgumentId()).isEqualTo('n');
+    }
+
+    @Test
+    public void memoizedValuesAreVisibleAcrossThreads() throws Exception {
+        final LazyArgs args = LazyArgs.parse("p#L", new String[]{"-p", "123456789012"});
+        Thread[] readers = new Thread[4];
+        final long[] seen = new long[readers.length];
+        for (int i = 0; i < readers.length; i++) {
+            final int reader = i;
+            readers[i] = new Thread(() -> {
+                try {
+                    seen[reader] = args.getLong('p');
+                } catch (ArgsException e) {
+                    seen[reader] = -1;
+                }
+            });
+            readers[i].start();
+        }
+        for (Thread reader : readers)
+            reader.join();
+        assertThat(seen).containsOnly(123456789012L);
+    }
+}
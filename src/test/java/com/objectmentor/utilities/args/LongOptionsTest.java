@@ -0,0 +1,139 @@
+package com.objectmentor.utilities.args;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static com.objectmentor.utilities.args.ArgsException.ErrorCode.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+public class LongOptionsTest {
+
+    @Test
+    public void longNamesTakeSeparateAndInlineValues() throws ArgsException {
+        Args args = new Args("verbose,port#,n|name*,rate##", new String[]{
+            "--verbose", "--port", "8080", "--name=x=y", "--rate=0.5", "rest"});
+        assertThat(args.getBoolean("verbose")).isTrue();
+        assertThat(args.getInt("port")).isEqualTo(8080);
+        assertThat(args.getString("name")).isEqualTo("x=y");
+        assertThat(args.getString('n')).isEqualTo("x=y");
+        assertThat(args.getDouble("rate")).isEqualTo(0.5);
+        assertThat(args.nextArgument()).isEqualTo(5);
+    }
+
+    @Test
+    public void letterAndLongNameShareOneElement() throws ArgsException {
+        ArgsSchema schema = ArgsSchema.compile("p|port#,f|file[*]");
+        Args args = new Args(schema, new String[]{"-p", "1", "--file", "a", "-f", "b", "--port=2"});
+        assertThat(args.getInt('p')).isEqualTo(2);
+        assertThat(args.getStringArray("file")).containsExactly("a", "b");
+        assertThat(args.has('f')).isTrue();
+        assertThat(args.has("port")).isTrue();
+        assertThat(args.has("missing")).isFalse();
+        assertThat(schema.intKey("port").getId()).isEqualTo('p');
+        assertThat(args.getInt(schema.intKey("port"))).isEqualTo(2);
+    }
+
+    @Test
+    public void mergedAliasesKeepSeparateElementsApart() throws ArgsException {
+        ArgsSchema schema = ArgsSchema.compile("p#,p|port##,port##");
+        assertThat(schema.size()).isEqualTo(1);
+        assertThat(new Args(schema, new String[]{"--port", "0.5"}).getDouble('p')).isEqualTo(0.5);
+    }
+
+    @Test
+    public void doubleDashEndsOptions() throws ArgsException {
+        Args args = new Args("l", new String[]{"-l", "--", "-l"});
+        assertThat(args.nextArgument()).isEqualTo(2);
+        assertThat(new Args(ArgsSchema.compile("l"), "-l -- -x").nextArgument()).isEqualTo(2);
+    }
+
+    @Test
+    public void errorsNameTheLongOption() throws ArgsException {
+        ArgsSchema schema = ArgsSchema.compile("verbose,p|port#");
+        ParseResult result = Args.parse(schema, new String[]{"--colour"});
+        assertThat(result.getErrorCode()).isEqualTo(UNEXPECTED_ARGUMENT);
+        assertThat(result.getErrorArgumentName()).isEqualTo("colour");
+        assertThat(result.errorMessage()).isEqualTo("Argument --colour unexpected.");
+
+        result = Args.parse(schema, new String[]{"--port=80x"});
+        assertThat(result.getErrorCode()).isEqualTo(INVALID_INTEGER);
+        assertThat(result.getErrorArgumentId()).isEqualTo('p');
+        assertThat(result.errorMessage()).startsWith("Argument --port expects an integer");
+
+        result = Args.parse(schema, new String[]{"-p"});
+        assertThat(result.errorMessage()).isEqualTo("Could not find integer parameter for -p.");
+
+        result = Args.parse(schema, new String[]{"--verbose=yes"});
+        assertThat(result.getErrorCode()).isEqualTo(INVALID_ARGUMENT_FORMAT);
+        assertThat(result.getErrorParameter()).isEqualTo("--verbose=yes");
+    }
+
+    @Test
+    public void invalidLongNamesAreRejected() {
+        assertSchemaError("x-ray|v", INVALID_ARGUMENT_NAME);
+        assertSchemaError("9lives", INVALID_ARGUMENT_NAME);
+        assertSchemaError("ab|cd", INVALID_ARGUMENT_NAME);
+        assertSchemaError("p|port#,q|port", INVALID_ARGUMENT_NAME);
+        assertSchemaError("p#,port*,p|port##", INVALID_ARGUMENT_NAME);
+        assertSchemaError("port*,p#,p|port##", INVALID_ARGUMENT_NAME);
+        ArgsException e = assertThrows(ArgsException.class, () -> ArgsSchema.compile("port~"));
+        assertThat(e.getErrorCode()).isEqualTo(INVALID_ARGUMENT_FORMAT);
+        assertThat(e.errorMessage()).isEqualTo("'~' is not a valid argument format.");
+    }
+
+    private static void assertSchemaError(String schema, ArgsException.ErrorCode errorCode) {
+        ArgsException e = assertTimeoutPreemptively(Duration.ofSeconds(10),
+            () -> assertThrows(ArgsException.class, () -> ArgsSchema.compile(schema)));
+        assertThat(e.getErrorCode()).isEqualTo(errorCode);
+    }
+
+    @Test
+    public void thousandsOfLongOptionsAreFoundPastTheFirstWord() throws ArgsException {
+        StringBuilder schemaText = new StringBuilder("v");
+        for (int i = 0; i < 3000; i++)
+            schemaText.append(",option-").append(i).append(i % 2 == 0 ? "#" : "");
+        ArgsSchema schema = ArgsSchema.compile(schemaText.toString());
+        assertThat(schema.size()).isEqualTo(3001);
+        Args args = new Args(schema, new String[]{"--option-2999", "--option-1000=7", "--option-64", "3", "-v"});
+        assertThat(args.getBoolean("option-2999")).isTrue();
+        assertThat(args.getInt("option-1000")).isEqualTo(7);
+        assertThat(args.getInt("option-64")).isEqualTo(3);
+        assertThat(args.has("option-63")).isFalse();
+        assertThat(args.has('v')).isTrue();
+        ParsedArgs snapshot = args.snapshot();
+        assertThat(snapshot.getBoolean("option-2999")).isTrue();
+        assertThat(snapshot.has("option-1001")).isFalse();
+        assertThat(Args.parse(schema, new String[]{"--option-3000"}).getErrorCode()).isEqualTo(UNEXPECTED_ARGUMENT);
+    }
+
+    @Test
+    public void specializedSchemaParsesLongOptions() throws ArgsException {
+        StringBuilder schemaText = new StringBuilder("l,p#");
+        for (int i = 0; i < 100; i++)
+            schemaText.append(",flag").append(i);
+        ArgsSchema schema = ArgsSchema.compile(schemaText.toString()).specialize();
+        Args args = new Args(schema, new String[]{"-lp", "5", "--flag99", "--flag70"});
+        assertThat(args.getInt('p')).isEqualTo(5);
+        assertThat(args.getBoolean("flag99")).isTrue();
+        assertThat(args.has("flag70")).isTrue();
+        assertThat(args.has("flag71")).isFalse();
+        assertThat(Args.parse(schema, new String[]{"-x"}).getErrorCode()).isEqualTo(UNEXPECTED_ARGUMENT);
+    }
+
+    @Test
+    public void columnarSinkKeepsPresencePastTheFirstWord() throws ArgsException {
+        StringBuilder schemaText = new StringBuilder();
+        for (int i = 0; i < 90; i++)
+            schemaText.append("flag").append(i).append(',');
+        schemaText.append('z');
+        ArgsSchema schema = ArgsSchema.compile(schemaText.toString());
+        ColumnarSink sink = new ColumnarSink(schema, 1);
+        sink.append(new Args(schema, new String[]{"--flag1", "-z"}));
+        sink.append(new Args(schema, new String[0]));
+        assertThat(sink.has(0, 'z')).isTrue();
+        assertThat(sink.has(1, 'z')).isFalse();
+    }
+}
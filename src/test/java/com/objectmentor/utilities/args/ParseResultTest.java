@@ -0,0 +1,88 @@
+package com.objectmentor.utilities.args;
+
+import org.junit.jupiter.api.Test;
+
+import static com.objectmentor.utilities.args.ArgsException.ErrorCode.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ParseResultTest {
+
+    @Test
+    public void successfulParseCarriesArgs() throws ArgsException {
+        ParseResult result = Args.parse(ArgsSchema.compile("l,p#"), new String[]{"-l", "-p", "42"});
+        assertThat(result.isOk()).isTrue();
+        assertThat(result.getErrorCode()).isEqualTo(OK);
+        assertThat(result.getArgs().getInt('p')).isEqualTo(42);
+        assertThat(result.getArgs().getBoolean('l')).isTrue();
+    }
+
+    @Test
+    public void unexpectedArgumentIsReportedWithoutThrowing() throws ArgsException {
+        ParseResult result = Args.parse(ArgsSchema.compile("l"), new String[]{"-x"});
+        assertThat(result.isOk()).isFalse();
+        assertThat(result.getArgs()).isNull();
+        assertThat(result.getErrorCode()).isEqualTo(UNEXPECTED_ARGUMENT);
+        assertThat(result.getErrorArgumentId()).isEqualTo('x');
+        assertThat(result.errorMessage()).isEqualTo("Argument -x unexpected.");
+    }
+
+    @Test
+    public void invalidIntegerIsReportedWithParameter() throws ArgsException {
+        ParseResult result = Args.parse(ArgsSchema.compile("p#"), new String[]{"-p", "80a"});
+        assertThat(result.getErrorCode()).isEqualTo(INVALID_INTEGER);
+        assertThat(result.getErrorArgumentId()).isEqualTo('p');
+        assertThat(result.getErrorParameter()).isEqualTo("80a");
+    }
+
+    @Test
+    public void overflowingIntegerIsInvalid() throws ArgsException {
+        ArgsSchema schema = ArgsSchema.compile("p#");
+        assertThat(Args.parse(schema, new String[]{"-p", "2147483648"}).getErrorCode()).isEqualTo(INVALID_INTEGER);
+        assertThat(Args.parse(schema, new String[]{"-p", "-2147483648"}).getArgs().getInt('p'))
+            .isEqualTo(Integer.MIN_VALUE);
+    }
+
+    @Test
+    public void missingValuesAreReported() throws ArgsException {
+        assertThat(Args.parse(ArgsSchema.compile("p#"), new String[]{"-p"}).getErrorCode())
+            .isEqualTo(MISSING_INTEGER);
+        assertThat(Args.parse(ArgsSchema.compile("d*"), new String[]{"-d"}).getErrorCode())
+            .isEqualTo(MISSING_STRING);
+    }
+
+    @Test
+    public void throwingConstructorUsesStacklessException() {
+        ArgsException e = assertThrows(ArgsException.class, () -> new Args("p#", new String[]{"-p", "x"}));
+        assertThat(e.getErrorCode()).isEqualTo(INVALID_INTEGER);
+        assertThat(e.getErrorArgumentId()).isEqualTo('p');
+        assertThat(e.getErrorParameter()).isEqualTo("x");
+        assertThat(e.getErrorOffset()).isEqualTo(0);
+        assertThat(e.getStackTrace()).isEmpty();
+    }
+
+    @Test
+    public void invalidIntegerReportsFailingOffset() throws ArgsException {
+        ArgsSchema schema = ArgsSchema.compile("p#");
+        assertThat(Args.parse(schema, new String[]{"-p", "80a0"}).getErrorOffset()).isEqualTo(2);
+        assertThat(Args.parse(schema, new String[]{"-p", "-"}).getErrorOffset()).isEqualTo(1);
+        assertThat(Args.parse(schema, new String[]{"-p", "21474836470"}).getErrorOffset()).isEqualTo(10);
+        ParseResult result = Args.parse(schema, new String[]{"-p", "2147483648"});
+        assertThat(result.getErrorOffset()).isEqualTo(9);
+        assertThat(result.errorMessage())
+            .isEqualTo("Argument -p expects an integer but was '2147483648'. (offset 9)");
+    }
+
+    @Test
+    public void longValuesUseTheFullRange() throws ArgsException {
+        ArgsSchema schema = ArgsSchema.compile("n#L");
+        assertThat(Args.parse(schema, new String[]{"-n", "9223372036854775807"}).getArgs().getLong('n'))
+            .isEqualTo(Long.MAX_VALUE);
+        assertThat(Args.parse(schema, new String[]{"-n", "-9223372036854775808"}).getArgs().getLong('n'))
+            .isEqualTo(Long.MIN_VALUE);
+        ParseResult overflow = Args.parse(schema, new String[]{"-n", "9223372036854775808"});
+        assertThat(overflow.getErrorCode()).isEqualTo(INVALID_LONG);
+        assertThat(overflow.getErrorOffset()).isEqualTo(18);
+        assertThat(Args.parse(schema, new String[]{"-n"}).getErrorCode()).isEqualTo(MISSING_LONG);
+    }
+}
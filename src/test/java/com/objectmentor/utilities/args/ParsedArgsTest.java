@@ -0,0 +1,68 @@
+package com.objectmentor.utilities.args;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ParsedArgsTest {
+    private static final int READS_PER_THREAD = 200_000;
+
+    @Test
+    public void snapshotCopiesAllValueTypes() throws ArgsException {
+        Args args = new Args("l,x,d*,p#,n#L,r##,f[*]", new String[]{
+            "-l", "-d", "/data", "-p", "80", "-n", "5000000000", "-r", "0.5", "-f", "a", "-f", "b", "rest"});
+        ParsedArgs parsed = args.snapshot();
+        assertThat(parsed.getBoolean('l')).isTrue();
+        assertThat(parsed.getBoolean('x')).isFalse();
+        assertThat(parsed.has('x')).isFalse();
+        assertThat(parsed.getString('d')).isEqualTo("/data");
+        assertThat(parsed.getInt('p')).isEqualTo(80);
+        assertThat(parsed.getLong('n')).isEqualTo(5000000000L);
+        assertThat(parsed.getDouble('r')).isEqualTo(0.5);
+        assertThat(parsed.getStringList('f')).containsExactly("a", "b");
+        assertThat(parsed.getStringArray('f')).containsExactly("a", "b");
+        assertThat(parsed.nextArgument()).isEqualTo(13);
+    }
+
+    @Test
+    public void mismatchedOrUnknownReadsFallBackToDefaults() throws ArgsException {
+        ParsedArgs parsed = new Args("d*,p#", new String[]{"-d", "x", "-p", "1"}).snapshot();
+        assertThat(parsed.getInt('d')).isEqualTo(0);
+        assertThat(parsed.getString('p')).isEqualTo("");
+        assertThat(parsed.getStringList('q')).isEmpty();
+    }
+
+    @Test
+    public void concurrentReadsSeeConsistentValues() throws Exception {
+        ParsedArgs parsed = new Args("l,p#,d*", new String[]{"-l", "-p", "8080", "-d", "/data"}).snapshot();
+        readConcurrently(parsed, Math.max(2, Runtime.getRuntime().availableProcessors()));
+    }
+
+    private void readConcurrently(final ParsedArgs parsed, int threads) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Callable<Long>> readers = new ArrayList<Callable<Long>>();
+            for (int t = 0; t < threads; t++)
+                readers.add(new Callable<Long>() {
+                    public Long call() {
+                        long sum = 0;
+                        for (int i = 0; i < READS_PER_THREAD; i++)
+                            if (parsed.getBoolean('l') && parsed.has('d'))
+                                sum += parsed.getInt('p') + parsed.getString('d').length();
+                        return sum;
+                    }
+                });
+            for (Future<Long> result : executor.invokeAll(readers))
+                assertThat(result.get()).isEqualTo(8085L * READS_PER_THREAD);
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.objectmentor.utilities.args;
+
+import org.junit.jupiter.api.Test;
+
+import static com.objectmentor.utilities.args.ArgsException.ErrorCode.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class RequiredAndDefaultsTest {
+
+    @Test
+    public void absentOptionsReadAsTheirDefaults() throws ArgsException {
+        Args args = new Args("p|port#=8080,n#L=-4000000000,r##=0.25,d*=/tmp,l", new String[]{"-l"});
+        assertThat(args.getInt('p')).isEqualTo(8080);
+        assertThat(args.getInt("port")).isEqualTo(8080);
+        assertThat(args.getLong('n')).isEqualTo(-4000000000L);
+        assertThat(args.getDouble('r')).isEqualTo(0.25);
+        assertThat(args.getString('d')).isEqualTo("/tmp");
+        assertThat(args.has('p')).isFalse();
+        assertThat(args.snapshot().getString('d')).isEqualTo("/tmp");
+    }
+
+    @Test
+    public void givenValuesReplaceDefaults() throws ArgsException {
+        Args args = new Args("p#=8080,d*=/tmp", new String[]{"-p", "9", "-d", "x"});
+        assertThat(args.getInt('p')).isEqualTo(9);
+        assertThat(args.getString('d')).isEqualTo("x");
+        assertThat(args.has('p')).isTrue();
+    }
+
+    @Test
+    public void reusedParserRestoresDefaults() throws ArgsException {
+        ArgsParser parser = new ArgsParser(ArgsSchema.compile("p#=8080,d*=/tmp"));
+        assertThat(parser.parse(new String[]{"-p", "1", "-d", "x"}).getArgs().getInt('p')).isEqualTo(1);
+        Args args = parser.parse(new String[0]).getArgs();
+        assertThat(args.getInt('p')).isEqualTo(8080);
+        assertThat(args.getString('d')).isEqualTo("/tmp");
+    }
+
+    @Test
+    public void missingRequiredOptionIsReported() throws ArgsException {
+        ArgsSchema schema = ArgsSchema.compile("l,p#!,host*!");
+        ParseResult result = Args.parse(schema, new String[]{"-l", "--host", "h"});
+        assertThat(result.getErrorCode()).isEqualTo(MISSING_REQUIRED_ARGUMENT);
+        assertThat(result.getErrorArgumentId()).isEqualTo('p');
+        assertThat(result.errorMessage()).isEqualTo("Argument -p is required.");
+
+        result = Args.parse(schema, "-p 1");
+        assertThat(result.getErrorArgumentName()).isEqualTo("host");
+        assertThat(result.errorMessage()).isEqualTo("Argument --host is required.");
+
+        assertThat(Args.parse(schema, new String[]{"-p", "1", "--host=h"}).isOk()).isTrue();
+        assertThat(Args.parse(schema.specialize(), new String[]{"--host=h"}).getErrorCode())
+            .isEqualTo(MISSING_REQUIRED_ARGUMENT);
+    }
+
+    @Test
+    public void requiredOptionsPastTheFirstWordAreChecked() throws ArgsException {
+        StringBuilder schemaText = new StringBuilder();
+        for (int i = 0; i < 100; i++)
+            schemaText.append("flag").append(i).append(i == 70 ? "!," : ",");
+        ArgsSchema schema = ArgsSchema.compile(schemaText.append('z').toString());
+        ParseResult result = Args.parse(schema, new String[]{"--flag1"});
+        assertThat(result.getErrorCode()).isEqualTo(MISSING_REQUIRED_ARGUMENT);
+        assertThat(result.getErrorArgumentName()).isEqualTo("flag70");
+        assertThat(Args.parse(schema, new String[]{"--flag70"}).isOk()).isTrue();
+    }
+
+    @Test
+    public void invalidDefaultsAreReportedWhenTheSchemaIsCompiled() {
+        ArgsException e = assertThrows(ArgsException.class, () -> ArgsSchema.compile("p#=80x"));
+        assertThat(e.getErrorCode()).isEqualTo(INVALID_INTEGER);
+        assertThat(e.getErrorArgumentId()).isEqualTo('p');
+        assertThat(e.getErrorParameter()).isEqualTo("80x");
+        assertThat(e.getErrorOffset()).isEqualTo(2);
+        assertFormatError("l=true", "=true");
+        assertFormatError("f[*]=a", "[*]=a");
+        assertFormatError("p#!=1", "#!=1");
+        assertFormatError("p!#", "!#");
+    }
+
+    private static void assertFormatError(String schema, String parameter) {
+        ArgsException e = assertThrows(ArgsException.class, () -> ArgsSchema.compile(schema));
+        assertThat(e.getErrorCode()).isEqualTo(INVALID_ARGUMENT_FORMAT);
+        assertThat(e.getErrorParameter()).isEqualTo(parameter);
+    }
+}
@@ -0,0 +1,78 @@
+package com.objectmentor.utilities.args;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+
+import static com.objectmentor.utilities.args.ArgsException.ErrorCode.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SchemaCompilerTest {
+
+    @Test
+    public void specializedSchemaParsesEveryType() throws ArgsException {
+        ArgsSchema schema = ArgsSchema.compile("l,p#,n#L,d##,s*,f[*],Z").specialize();
+        assertThat(schema.isSpecialized()).isTrue();
+        Args args = new Args(schema, new String[]{"-lpnd", "42", "-7", "0.5", "-sff", "x", "y", "z", "rest"});
+        assertThat(args.getBoolean('l')).isTrue();
+        assertThat(args.getBoolean('Z')).isFalse();
+        assertThat(args.has('Z')).isFalse();
+        assertThat(args.getInt('p')).isEqualTo(42);
+        assertThat(args.getLong('n')).isEqualTo(-7L);
+        assertThat(args.getDouble('d')).isEqualTo(0.5);
+        assertThat(args.getString('s')).isEqualTo("x");
+        assertThat(args.getStringArray('f')).containsExactly("y", "z");
+        assertThat(args.nextArgument()).isEqualTo(8);
+    }
+
+    @Test
+    public void specializedSchemaReportsSameErrors() throws ArgsException {
+        ArgsSchema schema = ArgsSchema.compile("p#,d##,s*").specialize();
+        assertError(schema, new String[]{"-x"}, UNEXPECTED_ARGUMENT, 'x');
+        assertError(schema, new String[]{"-m"}, UNEXPECTED_ARGUMENT, 'm');
+        assertError(schema, new String[]{"-p"}, MISSING_INTEGER, 'p');
+        assertError(schema, new String[]{"-p", "1x"}, INVALID_INTEGER, 'p');
+        assertError(schema, new String[]{"-d", "."}, INVALID_DOUBLE, 'd');
+        assertError(schema, new String[]{"-s"}, MISSING_STRING, 's');
+    }
+
+    private static void assertError(ArgsSchema schema, String[] argv, ArgsException.ErrorCode errorCode, char id) {
+        ParseResult result = Args.parse(schema, argv);
+        assertThat(result.getErrorCode()).isEqualTo(errorCode);
+        assertThat(result.getErrorArgumentId()).isEqualTo(id);
+    }
+
+    @Test
+    public void specializedSchemaWorksWithCommandLinesAndReusableParsers() throws ArgsException {
+        ArgsSchema schema = ArgsSchema.compile("l,p#").specialize();
+        assertThat(new Args(schema, "-l -p 9 rest").getInt('p')).isEqualTo(9);
+        ArgsParser parser = new ArgsParser(schema);
+        assertThat(parser.parse(new String[]{"-p", "3"}).getArgs().getInt('p')).isEqualTo(3);
+        assertThat(parser.parse(new String[]{"-l"}).getArgs().getInt('p')).isZero();
+    }
+
+    @Test
+    public void emptySchemaCanBeSpecialized() throws ArgsException {
+        ArgsSchema schema = ArgsSchema.compile("").specialize();
+        assertThat(Args.parse(schema, new String[]{"-a"}).getErrorCode()).isEqualTo(UNEXPECTED_ARGUMENT);
+        assertThat(Args.parse(schema, new String[]{"x"}).isOk()).isTrue();
+    }
+
+    @Test
+    public void generatedClassIsUnloadedWithItsSchema() throws Exception {
+        WeakReference<Class<?>> generated = specializeAndEvict("u,v#,w*");
+        for (int i = 0; i < 50 && generated.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertThat(generated.get()).isNull();
+    }
+
+    private static WeakReference<Class<?>> specializeAndEvict(String text) throws ArgsException {
+        ArgsSchema schema = ArgsSchema.compile(text).specialize();
+        WeakReference<Class<?>> generated = new WeakReference<Class<?>>(schema.compiledParser().getClass());
+        assertThat(generated.get().isHidden()).isTrue();
+        ArgsSchema.clearCache();
+        return generated;
+    }
+}
@@ -0,0 +1,57 @@
+package com.objectmentor.utilities.args;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class StringPoolTest {
+
+    @AfterEach
+    public void disablePool() {
+        StringPool.disable();
+    }
+
+    @Test
+    public void equalValuesShareOneInstance() {
+        StringPool pool = new StringPool(16);
+        String first = new String("/data/warehouse");
+        String second = new String("/data/warehouse");
+        assertThat(pool.deduplicate(first)).isSameAs(first);
+        assertThat(pool.deduplicate(second)).isSameAs(first);
+        assertThat(pool.getHits()).isEqualTo(1);
+        assertThat(pool.getMisses()).isEqualTo(1);
+        assertThat(pool.getHitRate()).isEqualTo(0.5);
+        assertThat(pool.getBytesSaved()).isEqualTo(40 + "/data/warehouse".length());
+    }
+
+    @Test
+    public void poolIsBounded() {
+        StringPool pool = new StringPool(5);
+        assertThat(pool.capacity()).isEqualTo(8);
+        for (int i = 0; i < 1000; i++)
+            pool.deduplicate("value" + i);
+        assertThat(pool.getMisses()).isEqualTo(1000);
+        assertThrows(IllegalArgumentException.class, () -> new StringPool(0));
+    }
+
+    @Test
+    public void marshalersUseSharedPool() throws ArgsException {
+        StringPool pool = StringPool.enable(64);
+        ArgsSchema schema = ArgsSchema.compile("d*,f[*]");
+        ParsedArgs first = new Args(schema, new String[]{"-d", new String("/data"), "-f", new String("x")}).snapshot();
+        ParsedArgs second = new Args(schema, new String[]{"-d", new String("/data"), "-f", new String("x")}).snapshot();
+        assertThat(second.getString('d')).isSameAs(first.getString('d'));
+        assertThat(second.getStringList('f').get(0)).isSameAs(first.getStringList('f').get(0));
+        assertThat(pool.getHits()).isEqualTo(2);
+    }
+
+    @Test
+    public void marshalersKeepOwnValuesWhenDisabled() throws ArgsException {
+        StringPool.disable();
+        String value = new String("/data");
+        Args args = new Args("d*", new String[]{"-d", value});
+        assertThat(args.getString('d')).isSameAs(value);
+    }
+}
@@ -0,0 +1,59 @@
+package com.objectmentor.utilities.args.processor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.*;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ParserProcessorTest {
+
+    @TempDir
+    Path output;
+
+    @Test
+    public void namesTheGeneratedParserDefinesAreRejected() {
+        for (String name : Arrays.asList("SCHEMA", "argsFound", "nextArgument"))
+            assertThat(errors(options("@Option('x') boolean " + name + "();")))
+                .containsExactly("The generated parser already defines " + name);
+    }
+
+    @Test
+    public void otherNamesCompile() {
+        assertThat(errors(options("@Option('x') boolean schema(); @Option('y') int found();"))).isEmpty();
+    }
+
+    private static String options(String methods) {
+        return "import com.objectmentor.utilities.args.*;\n"
+            + "@GenerateParser public interface Options { " + methods + " }\n";
+    }
+
+    private List<String> errors(final String source) {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+        JavaFileObject file = new SimpleJavaFileObject(URI.create("string:///Options.java"), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+        List<String> options = Arrays.asList("-d", output.toString(), "-s", output.toString(),
+            "-classpath", System.getProperty("java.class.path"));
+        JavaCompiler.CompilationTask task = compiler.getTask(null, null, diagnostics, options, null,
+            Collections.singletonList(file));
+        task.setProcessors(Collections.singletonList(new ParserProcessor()));
+        task.call();
+        List<String> errors = new ArrayList<String>();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics())
+            if (diagnostic.getKind() == Diagnostic.Kind.ERROR)
+                errors.add(diagnostic.getMessage(null));
+        return errors;
+    }
+}